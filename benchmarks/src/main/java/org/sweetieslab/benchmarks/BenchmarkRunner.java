@@ -0,0 +1,37 @@
+package org.sweetieslab.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkRunner {
+
+  private static final Logger LOGGER = Logger.getLogger(BenchmarkRunner.class.getName());
+
+  public static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+  public static final String DEFAULT_INCLUDE = DataServiceBenchmark.class.getSimpleName();
+  public static final String DEFAULT_RESULTS_DIR = "target/jmh-results";
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+    Path resultsDir = Path.of(args.length > 1 ? args[1] : DEFAULT_RESULTS_DIR);
+    Files.createDirectories(resultsDir);
+    for (int threads : THREAD_COUNTS) {
+      Path result = resultsDir.resolve("%s-%dt.json".formatted(include, threads));
+      Options options = new OptionsBuilder()
+          .include(include)
+          .threads(threads)
+          .resultFormat(ResultFormatType.JSON)
+          .result(result.toString())
+          .build();
+      new Runner(options).run();
+      LOGGER.info("Results for %d thread(s) written to %s".formatted(threads, result));
+    }
+  }
+}
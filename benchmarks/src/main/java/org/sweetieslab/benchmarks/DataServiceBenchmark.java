@@ -0,0 +1,173 @@
+package org.sweetieslab.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.DataService;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataServiceBenchmark {
+
+  private static final String SERVICE_PACKAGE = "org.sweetieslab.service.";
+  private static final int ORDERS = 1024;
+  private static final int HOT_ORDERS = 4;
+  private static final int INITIAL_COUNT = 2;
+  private static final int DRAINABLE_COUNT = 100_000_000;
+
+  public enum KeyDistribution {
+    HOT, UNIFORM
+  }
+
+  @State(Scope.Benchmark)
+  public static class Store {
+
+    @Param({"ConcurrentMapDataService", "RecipeIndexedDataService", "OffHeapDataService"})
+    public String implementation;
+
+    @Param({"HOT", "UNIFORM"})
+    public KeyDistribution distribution;
+
+    DataService dataService;
+    Order[] orders;
+    PancakeRecipe[] recipes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+      Address.setValidator(new AddressValidator() {
+        @Override
+        public Map<String, Set<String>> getValidBuildingsVsRooms() {
+          return Map.of("1", Set.of("1"));
+        }
+      });
+      dataService = (DataService) Class.forName(SERVICE_PACKAGE + implementation)
+          .getDeclaredConstructor()
+          .newInstance();
+      recipes = new PancakeRecipe[]{
+          PancakeFactory.getMilkChocolatePancakeRecipe(),
+          PancakeFactory.getMilkChocolateHazelnutPancakeRecipe(),
+          PancakeFactory.getDarkChocolatePancakeRecipe(),
+          PancakeFactory.getDarkChocolateWhippedCreamPancakeRecipe(),
+          PancakeFactory.getDarkChocolateWhippedCreamHazelnutPancakeRecipe()
+      };
+      Address address = new Address.Builder().building("1").room("1").build();
+      orders = new Order[ORDERS];
+      for (int i = 0; i < ORDERS; i++) {
+        orders[i] = new Order(address);
+      }
+      populate(initialCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      if (dataService instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+
+    protected int initialCount() {
+      return INITIAL_COUNT;
+    }
+
+    protected void populate(int count) {
+      for (Order order : orders) {
+        dataService.removeOrder(order.getId());
+        dataService.addOrder(order);
+        for (PancakeRecipe recipe : recipes) {
+          dataService.addPancakes(recipe, order.getId(), count);
+        }
+      }
+    }
+
+    int keySpace() {
+      return distribution == KeyDistribution.HOT ? HOT_ORDERS : ORDERS;
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class DrainableStore extends Store {
+
+    @Override
+    protected int initialCount() {
+      return DRAINABLE_COUNT;
+    }
+
+    @Setup(Level.Iteration)
+    public void refill() {
+      populate(DRAINABLE_COUNT);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    Order nextOrder(Store store) {
+      return store.orders[random.nextInt(store.keySpace())];
+    }
+
+    PancakeRecipe nextRecipe(Store store) {
+      return store.recipes[random.nextInt(store.recipes.length)];
+    }
+  }
+
+  @Benchmark
+  public void addOrder(Store store, Cursor cursor) {
+    store.dataService.addOrder(cursor.nextOrder(store));
+  }
+
+  @Benchmark
+  public void addPancakes(Store store, Cursor cursor) {
+    store.dataService.addPancakes(cursor.nextRecipe(store), cursor.nextOrder(store).getId(), 1);
+  }
+
+  @Benchmark
+  public void removePancakes(DrainableStore store, Cursor cursor) {
+    store.dataService.removePancakes(cursor.nextRecipe(store), cursor.nextOrder(store).getId(),
+        1);
+  }
+
+  @Benchmark
+  public int getPancakesCount(Store store, Cursor cursor) {
+    return store.dataService.getPancakesCount(cursor.nextOrder(store).getId());
+  }
+
+  @Benchmark
+  public List<String> getPancakesDescriptions(Store store, Cursor cursor) {
+    return store.dataService.getPancakesDescriptions(cursor.nextOrder(store).getId());
+  }
+
+  @Benchmark
+  public void removeOrder(Store store, Cursor cursor, Blackhole blackhole) {
+    Order order = cursor.nextOrder(store);
+    UUID orderId = order.getId();
+    blackhole.consume(store.dataService.removeOrder(orderId));
+    store.dataService.addOrder(order);
+  }
+}
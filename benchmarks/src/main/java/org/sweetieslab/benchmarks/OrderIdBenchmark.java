@@ -0,0 +1,49 @@
+package org.sweetieslab.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sweetieslab.model.order.id.OrderIdGenerator;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderIdBenchmark {
+
+  private static final String GENERATOR_PACKAGE = "org.sweetieslab.model.order.id.";
+
+  @State(Scope.Benchmark)
+  public static class Generator {
+
+    @Param({"RandomOrderIdGenerator", "TimeOrderedOrderIdGenerator",
+        "SequentialOrderIdGenerator"})
+    public String implementation;
+
+    OrderIdGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+      generator = (OrderIdGenerator) Class.forName(GENERATOR_PACKAGE + implementation)
+          .getDeclaredConstructor()
+          .newInstance();
+    }
+  }
+
+  @Benchmark
+  public UUID nextId(Generator generator) {
+    return generator.generator.nextId();
+  }
+}
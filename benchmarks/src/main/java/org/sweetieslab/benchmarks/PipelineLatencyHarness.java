@@ -0,0 +1,214 @@
+package org.sweetieslab.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.service.CollectionsOperationsService;
+import org.sweetieslab.service.ConcurrentMapDataService;
+import org.sweetieslab.service.DataService;
+import org.sweetieslab.service.ManagementService;
+import org.sweetieslab.service.OperationsService;
+import org.sweetieslab.service.RingBufferOperationsService;
+import org.sweetieslab.service.WaitStrategy;
+import org.sweetieslab.service.exception.OperationsServiceException;
+
+public class PipelineLatencyHarness {
+
+  private static final Logger LOGGER = Logger.getLogger(PipelineLatencyHarness.class.getName());
+  private static final List<Logger> QUIETED_LOGGERS = List.of(
+      Logger.getLogger(ManagementService.class.getName()),
+      Logger.getLogger(ConcurrentMapDataService.class.getName()));
+
+  public static final int DEFAULT_ORDERS = 100_000;
+  public static final int DISCIPLES = 3;
+  public static final int CHEFS = 1;
+  public static final int COURIERS = 3;
+  public static final long TIMEOUT_SECONDS = 300L;
+  public static final long FAILURE_CHECK_MILLIS = 100L;
+  public static final String RING_BUFFER_BACKEND = "RingBuffer";
+  public static final String RESULT_MESSAGE = """
+      %s: %d orders in %d ms, %.0f orders/sec, handoff latency p50=%d us, p99=%d us, \
+      p999=%d us, max=%d us""";
+  public static final String TIMEOUT_MESSAGE = "%s: %d of %d orders delivered within %d s";
+  public static final String FAILURE_MESSAGE = "%s: harness task failed";
+
+  private final int orders;
+
+  public PipelineLatencyHarness(int orders) {
+    this.orders = orders;
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int orders = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ORDERS;
+    List<String> backends = args.length > 1 ? Arrays.asList(args).subList(1, args.length)
+        : List.of(LinkedBlockingQueue.class.getSimpleName(),
+            ArrayBlockingQueue.class.getSimpleName(), LinkedTransferQueue.class.getSimpleName(),
+            RING_BUFFER_BACKEND + "/" + WaitStrategy.YIELD,
+            RING_BUFFER_BACKEND + "/" + WaitStrategy.PARK);
+    QUIETED_LOGGERS.forEach(logger -> logger.setLevel(Level.WARNING));
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+    PipelineLatencyHarness harness = new PipelineLatencyHarness(orders);
+    for (String backend : backends) {
+      harness.run(backend, operationsServiceFactory(backend, orders));
+    }
+  }
+
+  static Supplier<OperationsService> operationsServiceFactory(String backend, int orders) {
+    if (backend.startsWith(RING_BUFFER_BACKEND + "/")) {
+      WaitStrategy waitStrategy = WaitStrategy.valueOf(
+          backend.substring(RING_BUFFER_BACKEND.length() + 1));
+      int capacity = Integer.highestOneBit(Math.max(orders - 1, 1)) << 1;
+      return () -> new RingBufferOperationsService(capacity, 0, waitStrategy);
+    }
+    Supplier<BlockingQueue<Order>> queueFactory = queueFactory(backend, orders);
+    return () -> new CollectionsOperationsService(queueFactory, 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  static Supplier<BlockingQueue<Order>> queueFactory(String backend, int capacity) {
+    return switch (backend) {
+      case "LinkedBlockingQueue" -> LinkedBlockingQueue::new;
+      case "ArrayBlockingQueue" -> () -> new ArrayBlockingQueue<>(capacity);
+      case "LinkedTransferQueue" -> LinkedTransferQueue::new;
+      default -> () -> {
+        try {
+          return (BlockingQueue<Order>) Class.forName(backend).getDeclaredConstructor()
+              .newInstance();
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalArgumentException("Unknown queue backend: " + backend, e);
+        }
+      };
+    };
+  }
+
+  public void run(String backend, Supplier<OperationsService> operationsServiceFactory)
+      throws InterruptedException {
+    DataService dataService = new ConcurrentMapDataService();
+    ManagementService managementService = new ManagementService(
+        operationsServiceFactory.get(), dataService);
+    Address address = new Address.Builder().building("1").room("1").build();
+    ConcurrentMap<Order, Long> completedAt = new ConcurrentHashMap<>(orders);
+    long[] latencies = new long[orders];
+    AtomicInteger delivered = new AtomicInteger();
+    AtomicInteger submitted = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(orders);
+    List<Future<?>> tasks = new ArrayList<>();
+
+    ExecutorService disciples = Executors.newFixedThreadPool(DISCIPLES);
+    ExecutorService chefs = Executors.newFixedThreadPool(CHEFS);
+    ExecutorService couriers = Executors.newFixedThreadPool(COURIERS);
+    long start = System.nanoTime();
+    try {
+      for (int i = 0; i < CHEFS; i++) {
+        tasks.add(chefs.submit(() -> loop(managementService::prepareOrder)));
+      }
+      for (int i = 0; i < COURIERS; i++) {
+        tasks.add(couriers.submit(() -> loop(() -> {
+          Order order = managementService.deliverOrder();
+          if (order != null) {
+            long latency = System.nanoTime() - completedAt.remove(order);
+            latencies[delivered.getAndIncrement()] = latency;
+            done.countDown();
+          }
+          return order;
+        })));
+      }
+      for (int i = 0; i < DISCIPLES; i++) {
+        tasks.add(disciples.submit(() -> {
+          while (submitted.getAndIncrement() < orders) {
+            Order order = managementService.createOrder(address);
+            managementService.addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(),
+                order.getId(), 1);
+            completedAt.put(order, System.nanoTime());
+            managementService.completeOrder(order);
+          }
+        }));
+      }
+      awaitDelivered(backend, done, tasks);
+    } finally {
+      disciples.shutdownNow();
+      chefs.shutdownNow();
+      couriers.shutdownNow();
+      managementService.close();
+    }
+    long elapsedNanos = System.nanoTime() - start;
+    report(backend, latencies, elapsedNanos);
+  }
+
+  private void awaitDelivered(String backend, CountDownLatch done, List<Future<?>> tasks)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+    while (!done.await(FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+      for (Future<?> task : tasks) {
+        if (task.isDone()) {
+          try {
+            task.get();
+          } catch (ExecutionException e) {
+            throw new IllegalStateException(FAILURE_MESSAGE.formatted(backend), e.getCause());
+          }
+        }
+      }
+      if (System.nanoTime() - deadline > 0) {
+        throw new IllegalStateException(TIMEOUT_MESSAGE.formatted(backend,
+            orders - done.getCount(), orders, TIMEOUT_SECONDS));
+      }
+    }
+  }
+
+  private static void loop(Supplier<Order> stage) {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        stage.get();
+      }
+    } catch (OperationsServiceException e) {
+      if (!Thread.currentThread().isInterrupted()) {
+        throw e;
+      }
+    }
+  }
+
+  private void report(String backend, long[] latencies, long elapsedNanos) {
+    Arrays.sort(latencies);
+    double ordersPerSecond = orders / (elapsedNanos / 1e9);
+    LOGGER.info(RESULT_MESSAGE.formatted(backend, orders,
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos), ordersPerSecond,
+        micros(percentile(latencies, 0.5)), micros(percentile(latencies, 0.99)),
+        micros(percentile(latencies, 0.999)), micros(latencies[latencies.length - 1])));
+  }
+
+  static long percentile(long[] sorted, double quantile) {
+    int index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+
+  private static long micros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+}
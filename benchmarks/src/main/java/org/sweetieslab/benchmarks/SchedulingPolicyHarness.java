@@ -0,0 +1,80 @@
+package org.sweetieslab.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.service.ManagementService;
+import org.sweetieslab.service.OrderDraft;
+import org.sweetieslab.service.RecipeIndexedDataService;
+import org.sweetieslab.service.SchedulingOperationsService;
+import org.sweetieslab.service.SchedulingPolicy;
+
+public class SchedulingPolicyHarness {
+
+  private static final Logger LOGGER = Logger.getLogger(SchedulingPolicyHarness.class.getName());
+  private static final Logger MANAGEMENT_LOGGER = Logger.getLogger(
+      ManagementService.class.getName());
+
+  public static final int DEFAULT_ORDERS = 200;
+  public static final int LARGE_ORDER_PANCAKES = 20;
+  public static final double LARGE_ORDER_SHARE = 0.1;
+  public static final long COOK_MILLIS_PER_PANCAKE = 1L;
+  public static final String RESULT_MESSAGE = "%s: completed-to-prepared latency %s";
+
+  private final int orders;
+
+  public SchedulingPolicyHarness(int orders) {
+    this.orders = orders;
+  }
+
+  public static void main(String[] args) {
+    int orders = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ORDERS;
+    List<SchedulingPolicy> policies = args.length > 1
+        ? Arrays.stream(args, 1, args.length).map(SchedulingPolicy::valueOf).toList()
+        : List.of(SchedulingPolicy.values());
+    MANAGEMENT_LOGGER.setLevel(Level.WARNING);
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+    SchedulingPolicyHarness harness = new SchedulingPolicyHarness(orders);
+    for (SchedulingPolicy policy : policies) {
+      harness.run(policy);
+    }
+  }
+
+  public void run(SchedulingPolicy policy) {
+    RecipeIndexedDataService dataService = new RecipeIndexedDataService();
+    SchedulingOperationsService operationsService =
+        new SchedulingOperationsService.Builder(dataService)
+            .policy(policy)
+            .cookTimeMillis(0)
+            .cookMillisPerPancake(COOK_MILLIS_PER_PANCAKE)
+            .build();
+    Address address = new Address.Builder().building("1").room("1").build();
+    Random random = new Random(42);
+    try (ManagementService managementService = new ManagementService(operationsService,
+        dataService)) {
+      for (int i = 0; i < orders; i++) {
+        int pancakes = random.nextDouble() < LARGE_ORDER_SHARE ? LARGE_ORDER_PANCAKES : 1;
+        managementService.submitOrder(new OrderDraft(address)
+            .addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), pancakes), true);
+      }
+      for (int i = 0; i < orders; i++) {
+        managementService.prepareOrder();
+        managementService.deliverOrder();
+      }
+    }
+    LOGGER.info(RESULT_MESSAGE.formatted(policy,
+        operationsService.getPreparationLatency().summary()));
+  }
+}
@@ -0,0 +1,57 @@
+package org.sweetieslab.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.service.CollectionsOperationsService;
+import org.sweetieslab.service.ConcurrentMapDataService;
+import org.sweetieslab.service.OrderSnapshots;
+
+public class SnapshotHarness {
+
+  private static final Logger LOGGER = Logger.getLogger(SnapshotHarness.class.getName());
+
+  public static final int DEFAULT_ORDERS = 1_000_000;
+  public static final String RESULT_MESSAGE =
+      "%d orders: wrote %d MB in %d ms, loaded in %d ms";
+
+  public static void main(String[] args) throws IOException {
+    int orders = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ORDERS;
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+    Address address = new Address.Builder().building("1").room("1").build();
+    ConcurrentMapDataService dataService = new ConcurrentMapDataService();
+    for (int i = 0; i < orders; i++) {
+      dataService.addOrder(new Order(address),
+          Map.of(PancakeFactory.getDarkChocolatePancakeRecipe(), 1 + i % 3,
+              PancakeFactory.getMilkChocolatePancakeRecipe(), 1));
+    }
+    Path file = Files.createTempFile("orders", ".snapshot");
+    try {
+      long start = System.nanoTime();
+      new OrderSnapshots(dataService, new CollectionsOperationsService()).write(file);
+      long written = System.nanoTime() - start;
+      dataService = null;
+      start = System.nanoTime();
+      new OrderSnapshots(new ConcurrentMapDataService(), new CollectionsOperationsService())
+          .load(file);
+      long loaded = System.nanoTime() - start;
+      LOGGER.info(RESULT_MESSAGE.formatted(orders, Files.size(file) >> 20,
+          TimeUnit.NANOSECONDS.toMillis(written), TimeUnit.NANOSECONDS.toMillis(loaded)));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
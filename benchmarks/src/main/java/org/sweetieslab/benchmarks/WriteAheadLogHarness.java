@@ -0,0 +1,121 @@
+package org.sweetieslab.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.WriteAheadLogDataService;
+import org.sweetieslab.service.wal.FsyncPolicy;
+
+public class WriteAheadLogHarness {
+
+  private static final Logger LOGGER = Logger.getLogger(WriteAheadLogHarness.class.getName());
+
+  public static final int DEFAULT_MUTATIONS = 1_000_000;
+  public static final int THREADS = 4;
+  public static final int ORDERS_PER_THREAD = 64;
+  public static final String RESULT_MESSAGE =
+      "%s: %d mutations/sec, recovered %d orders in %d ms";
+
+  private final int mutations;
+
+  public WriteAheadLogHarness(int mutations) {
+    this.mutations = mutations;
+  }
+
+  public static void main(String[] args) throws IOException {
+    int mutations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MUTATIONS;
+    List<FsyncPolicy> policies = args.length > 1
+        ? Arrays.stream(args, 1, args.length).map(FsyncPolicy::valueOf).toList()
+        : List.of(FsyncPolicy.values());
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+    WriteAheadLogHarness harness = new WriteAheadLogHarness(mutations);
+    for (FsyncPolicy policy : policies) {
+      Path directory = Files.createTempDirectory("wal-harness");
+      try {
+        harness.run(policy, directory);
+      } finally {
+        delete(directory);
+      }
+    }
+  }
+
+  public void run(FsyncPolicy policy, Path directory) {
+    PancakeRecipe pancake = PancakeFactory.getDarkChocolatePancakeRecipe();
+    Address address = new Address.Builder().building("1").room("1").build();
+    int perThread = mutations / THREADS;
+    long elapsed;
+    try (WriteAheadLogDataService dataService = open(policy, directory)) {
+      List<List<UUID>> orders = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        List<UUID> orderIds = new ArrayList<>();
+        for (int j = 0; j < ORDERS_PER_THREAD; j++) {
+          Order order = new Order(address);
+          dataService.addOrder(order);
+          orderIds.add(order.getId());
+        }
+        orders.add(orderIds);
+      }
+      long start = System.nanoTime();
+      CompletableFuture.allOf(IntStream.range(0, THREADS)
+          .mapToObj(i -> CompletableFuture.runAsync(() -> {
+            List<UUID> orderIds = orders.get(i);
+            for (int j = 0; j < perThread; j++) {
+              UUID orderId = orderIds.get(j / 2 % ORDERS_PER_THREAD);
+              if (j % 2 == 0) {
+                dataService.addPancakes(pancake, orderId, 2);
+              } else {
+                dataService.removePancakes(pancake, orderId, 1);
+              }
+            }
+          }))
+          .toArray(CompletableFuture[]::new)).join();
+      elapsed = System.nanoTime() - start;
+    }
+    long start = System.nanoTime();
+    try (WriteAheadLogDataService dataService = open(policy, directory)) {
+      long recovery = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      LOGGER.info(RESULT_MESSAGE.formatted(policy,
+          (long) perThread * THREADS * TimeUnit.SECONDS.toNanos(1) / Math.max(1L, elapsed),
+          THREADS * ORDERS_PER_THREAD, recovery));
+    }
+  }
+
+  private static WriteAheadLogDataService open(FsyncPolicy policy, Path directory) {
+    return new WriteAheadLogDataService.Builder(directory).fsyncPolicy(policy).build();
+  }
+
+  private static void delete(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> {
+        try {
+          Files.delete(file);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+  }
+}
@@ -13,51 +13,63 @@ import java.util.concurrent.Future;
 import java.util.logging.Logger;
 import org.sweetieslab.model.order.Address;
 import org.sweetieslab.model.order.Order;
-import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.order.id.OrderIdGenerator;
+import org.sweetieslab.model.order.id.RandomOrderIdGenerator;
+import org.sweetieslab.model.order.id.SequentialOrderIdGenerator;
+import org.sweetieslab.model.order.id.TimeOrderedOrderIdGenerator;
+import org.sweetieslab.model.order.validator.CompiledAddressValidator;
 import org.sweetieslab.service.CollectionsOperationsService;
+import org.sweetieslab.service.CollectionsOperationsServiceMXBean;
 import org.sweetieslab.service.ConcurrentMapDataService;
 import org.sweetieslab.service.ManagementService;
-import org.sweetieslab.workers.AbstractPermanentWorker;
+import org.sweetieslab.service.OperationsService;
+import org.sweetieslab.service.WorkStealingOperationsService;
+import org.sweetieslab.service.delivery.DeliveryBatcher;
+import org.sweetieslab.service.metrics.MBeanRegistry;
 import org.sweetieslab.workers.Disciple;
+import org.sweetieslab.workers.StageRuntime;
 
 public class Main {
 
   private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+  private static final int CHEFS = Integer.getInteger("sweetieslab.chefs", 1);
+  private static final boolean BUILDING_AFFINITY = Boolean.getBoolean(
+      "sweetieslab.buildingAffinity");
+  private static final int GRIDDLE_CAPACITY = 4;
+  private static final long BATCH_WINDOW_MILLIS = 50L;
+  private static final boolean VIRTUAL_THREADS = Boolean.getBoolean("sweetieslab.virtualThreads");
+  private static final int DISCIPLES = Integer.getInteger("sweetieslab.disciples",
+      NUMBER_OF_ITERATIONS);
+  private static final String ORDER_IDS = System.getProperty("sweetieslab.orderIds", "random");
 
     public static void main(String[] args) {
       final Set<String> rooms = new HashSet<>();
-      for (int i = 1; i <= 10; i++) {
+      for (int i = 1; i <= Math.max(10, DISCIPLES); i++) {
         rooms.add(String.valueOf(i));
       }
-      Address.setValidator(new AddressValidator() {
-        @Override
-        public Map<String, Set<String>> getValidBuildingsVsRooms() {
-          return Map.of("1", rooms, "2", rooms);
-        }
-      });
-      ExecutorService discipleExecutor = Executors.newFixedThreadPool(3);
-      ExecutorService senseiExecutor = Executors.newSingleThreadExecutor();
-      ExecutorService deliveryExecutor = Executors.newFixedThreadPool(3);
-      ManagementService managementService = new ManagementService(
-          new CollectionsOperationsService(), new ConcurrentMapDataService());
+      Address.setValidator(new CompiledAddressValidator(Map.of("1", rooms, "2", rooms)));
+      Order.setIdGenerator(orderIdGenerator());
+      ExecutorService discipleExecutor = VIRTUAL_THREADS
+          ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(3);
+      OperationsService operationsService = operationsService();
+      ConcurrentMapDataService dataService = new ConcurrentMapDataService();
+      ManagementService managementService = new ManagementService(operationsService,
+          dataService);
+      MBeanRegistry mbeans = new MBeanRegistry();
+      mbeans.register(managementService);
+      mbeans.register(dataService);
+      if (operationsService instanceof CollectionsOperationsServiceMXBean) {
+        mbeans.register(operationsService);
+      }
+      StageRuntime stageRuntime = new StageRuntime(managementService, executor(CHEFS), CHEFS,
+          executor(3), new DeliveryBatcher.Builder(managementService).build());
       try {
+        stageRuntime.start();
         List<Future<Boolean>> discipleFutures = new ArrayList<>();
-        for (int counter = 1; counter <= NUMBER_OF_ITERATIONS; counter++) {
+        for (int counter = 1; counter <= DISCIPLES; counter++) {
           discipleFutures.add(discipleExecutor.submit(new Disciple(managementService,
               counter)));
         }
-        Future<?> senseiFuture = senseiExecutor.submit(new AbstractPermanentWorker() {
-          @Override
-          protected Order doAction() {
-            return managementService.prepareOrder();
-          }
-        });
-        Future<?> deliveryFuture = deliveryExecutor.submit(new AbstractPermanentWorker() {
-          @Override
-          protected Order doAction() {
-            return managementService.deliverOrder();
-          }
-        });
         discipleFutures.forEach(df -> {
           try {
             df.get();
@@ -66,15 +78,37 @@ public class Main {
             Thread.currentThread().interrupt();
           }
         });
-        senseiFuture.get();
-        deliveryFuture.get();
-      } catch (Exception e) {
-        LOGGER.info(e.getMessage());
-        Thread.currentThread().interrupt();
       } finally {
         discipleExecutor.shutdownNow();
-        senseiExecutor.shutdownNow();
-        deliveryExecutor.shutdownNow();
+        stageRuntime.stop();
+        managementService.close();
+        mbeans.close();
+      }
+    }
+
+    private static ExecutorService executor(int threads) {
+      return VIRTUAL_THREADS ? Executors.newFixedThreadPool(threads, Thread.ofVirtual().factory())
+          : Executors.newFixedThreadPool(threads);
+    }
+
+    private static OrderIdGenerator orderIdGenerator() {
+      return switch (ORDER_IDS) {
+        case "time" -> new TimeOrderedOrderIdGenerator();
+        case "sequential" -> new SequentialOrderIdGenerator();
+        default -> new RandomOrderIdGenerator();
+      };
+    }
+
+    private static OperationsService operationsService() {
+      if (CHEFS > 1) {
+        return new WorkStealingOperationsService.Builder()
+            .chefs(CHEFS)
+            .buildingAffinity(BUILDING_AFFINITY)
+            .build();
       }
+      return new CollectionsOperationsService.Builder()
+          .batchSize(GRIDDLE_CAPACITY)
+          .batchWindowMillis(BATCH_WINDOW_MILLIS)
+          .build();
     }
 }
\ No newline at end of file
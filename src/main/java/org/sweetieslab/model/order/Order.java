@@ -1,18 +1,53 @@
 package org.sweetieslab.model.order;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Objects;
 import java.util.UUID;
+import org.sweetieslab.model.order.id.OrderIdGenerator;
+import org.sweetieslab.model.order.id.RandomOrderIdGenerator;
 
 public class Order {
 
+  private static final VarHandle LIFECYCLE;
+  private static final OrderStatus[] STATUSES = OrderStatus.values();
+  private static final int STATUS_SHIFT = 16;
+  private static final int MAX_MUTATIONS = (1 << STATUS_SHIFT) - 1;
+  private static final int SPINS_BEFORE_YIELD = 64;
+
+  static {
+    try {
+      LIFECYCLE = MethodHandles.lookup().findVarHandle(Order.class, "lifecycle", int.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static volatile OrderIdGenerator idGenerator = new RandomOrderIdGenerator();
+
   private final UUID id;
   private final String building;
   private final String room;
+  private final long[] transitionNanos = new long[STATUSES.length];
+  private volatile int lifecycle = OrderStatus.OPEN.ordinal() << STATUS_SHIFT;
 
   public Order(Address address) {
-    this.id = UUID.randomUUID();
-    this.building = address.getBuilding();
-    this.room = address.getRoom();
+    this(idGenerator.nextId(), address.getBuilding(), address.getRoom());
+  }
+
+  protected Order(UUID id, String building, String room) {
+    this.id = id;
+    this.building = building;
+    this.room = room;
+    this.transitionNanos[OrderStatus.OPEN.ordinal()] = System.nanoTime();
+  }
+
+  public static Order restore(UUID id, String building, String room) {
+    return new Order(id, building, room);
+  }
+
+  public static void setIdGenerator(OrderIdGenerator idGenerator) {
+    Order.idGenerator = idGenerator;
   }
 
   public UUID getId() {
@@ -27,6 +62,85 @@ public class Order {
     return room;
   }
 
+  public OrderStatus getStatus() {
+    return statusOf(getLifecycle());
+  }
+
+  public long getCreatedNanos() {
+    return getTransitionNanos(OrderStatus.OPEN);
+  }
+
+  public long getTransitionNanos(OrderStatus status) {
+    return transitionNanos[status.ordinal()];
+  }
+
+  public boolean beginMutation() {
+    for (int attempt = 1; ; attempt++) {
+      int current = getLifecycle();
+      if (current >>> STATUS_SHIFT != OrderStatus.OPEN.ordinal()) {
+        return false;
+      }
+      if ((current & MAX_MUTATIONS) != MAX_MUTATIONS) {
+        if (compareAndSetLifecycle(current, current + 1)) {
+          return true;
+        }
+      } else if (attempt % SPINS_BEFORE_YIELD == 0) {
+        Thread.yield();
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+  public void endMutation() {
+    int current;
+    do {
+      current = getLifecycle();
+      if ((current & MAX_MUTATIONS) == 0) {
+        throw new IllegalStateException("No mutation in flight for order " + id);
+      }
+    } while (!compareAndSetLifecycle(current, current - 1));
+  }
+
+  public boolean transition(OrderStatus from, OrderStatus to) {
+    int expected = from.ordinal() << STATUS_SHIFT;
+    int next = to.ordinal() << STATUS_SHIFT;
+    for (int attempt = 1; !compareAndSetLifecycle(expected, next); attempt++) {
+      if (getLifecycle() >>> STATUS_SHIFT != from.ordinal()) {
+        return false;
+      }
+      if (attempt % SPINS_BEFORE_YIELD == 0) {
+        Thread.yield();
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+    if (to != OrderStatus.OPEN) {
+      setTransitionNanos(to, System.nanoTime());
+    }
+    return true;
+  }
+
+  protected static int lifecycleOf(OrderStatus status) {
+    return status.ordinal() << STATUS_SHIFT;
+  }
+
+  protected static OrderStatus statusOf(int lifecycle) {
+    return STATUSES[lifecycle >>> STATUS_SHIFT];
+  }
+
+  protected int getLifecycle() {
+    return lifecycle;
+  }
+
+  protected boolean compareAndSetLifecycle(int expected, int next) {
+    return LIFECYCLE.compareAndSet(this, expected, next);
+  }
+
+  protected void setTransitionNanos(OrderStatus status, long nanos) {
+    transitionNanos[status.ordinal()] = nanos;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
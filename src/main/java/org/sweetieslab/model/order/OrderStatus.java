@@ -0,0 +1,5 @@
+package org.sweetieslab.model.order;
+
+public enum OrderStatus {
+  OPEN, COMPLETED, PREPARING, PREPARED, OUT_FOR_DELIVERY, CANCELLED
+}
@@ -0,0 +1,9 @@
+package org.sweetieslab.model.order.id;
+
+import java.util.UUID;
+
+@FunctionalInterface
+public interface OrderIdGenerator {
+
+  UUID nextId();
+}
@@ -0,0 +1,11 @@
+package org.sweetieslab.model.order.id;
+
+import java.util.UUID;
+
+public class RandomOrderIdGenerator implements OrderIdGenerator {
+
+  @Override
+  public UUID nextId() {
+    return UUID.randomUUID();
+  }
+}
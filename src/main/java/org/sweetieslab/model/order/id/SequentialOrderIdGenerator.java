@@ -0,0 +1,51 @@
+package org.sweetieslab.model.order.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SequentialOrderIdGenerator implements OrderIdGenerator {
+
+  public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+  private final long node;
+  private final int blockSize;
+  private final AtomicLong counter = new AtomicLong();
+  private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+  public SequentialOrderIdGenerator() {
+    this(ThreadLocalRandom.current().nextLong());
+  }
+
+  public SequentialOrderIdGenerator(long node) {
+    this(node, DEFAULT_BLOCK_SIZE);
+  }
+
+  public SequentialOrderIdGenerator(long node, int blockSize) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("Invalid block size: " + blockSize);
+    }
+    this.node = node;
+    this.blockSize = blockSize;
+  }
+
+  @Override
+  public UUID nextId() {
+    Block block = blocks.get();
+    if (block.next == block.end) {
+      block.next = counter.getAndAdd(blockSize);
+      block.end = block.next + blockSize;
+    }
+    return new UUID(node, block.next++);
+  }
+
+  public long getNode() {
+    return node;
+  }
+
+  private static final class Block {
+
+    private long next;
+    private long end;
+  }
+}
@@ -0,0 +1,60 @@
+package org.sweetieslab.model.order.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+public class TimeOrderedOrderIdGenerator implements OrderIdGenerator {
+
+  private static final long VERSION = 0x7000L;
+  private static final long VARIANT = 0x8000000000000000L;
+  private static final int SEQUENCE_BITS = 12;
+  private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+  private static final long ORDINAL_MASK = 0x3FFFFFFFL;
+
+  private final LongSupplier clock;
+  private final AtomicInteger ordinals = new AtomicInteger();
+  private final ThreadLocal<ThreadState> states = ThreadLocal.withInitial(this::newState);
+
+  public TimeOrderedOrderIdGenerator() {
+    this(System::currentTimeMillis);
+  }
+
+  TimeOrderedOrderIdGenerator(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  private ThreadState newState() {
+    long ordinal = ordinals.getAndIncrement() & ORDINAL_MASK;
+    long random = ThreadLocalRandom.current().nextInt() & 0xFFFFFFFFL;
+    return new ThreadState(VARIANT | ordinal << Integer.SIZE | random);
+  }
+
+  @Override
+  public UUID nextId() {
+    ThreadState state = states.get();
+    long millis = clock.getAsLong();
+    if (millis > state.millis) {
+      state.millis = millis;
+      state.sequence = 0;
+    } else if (state.sequence == MAX_SEQUENCE) {
+      state.millis++;
+      state.sequence = 0;
+    } else {
+      state.sequence++;
+    }
+    return new UUID(state.millis << 16 | VERSION | state.sequence, state.node);
+  }
+
+  private static final class ThreadState {
+
+    private final long node;
+    private long millis = -1;
+    private long sequence;
+
+    private ThreadState(long node) {
+      this.node = node;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package org.sweetieslab.model.order.validator;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -9,6 +10,8 @@ import org.sweetieslab.model.order.validator.exception.AddressValidationExceptio
 
 public interface AddressValidator {
 
+  int PARALLEL_THRESHOLD = 4096;
+
   default List<Consumer<Address>> getRules() {
     return List.of(
         address -> {
@@ -44,5 +47,13 @@ public interface AddressValidator {
     }
   }
 
+  default void validateAll(Collection<Address> addresses) {
+    if (addresses.size() < PARALLEL_THRESHOLD) {
+      addresses.forEach(this::validate);
+    } else {
+      addresses.parallelStream().forEach(this::validate);
+    }
+  }
+
   Map<String, Set<String>> getValidBuildingsVsRooms();
 }
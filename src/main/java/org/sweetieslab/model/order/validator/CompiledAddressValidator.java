@@ -0,0 +1,74 @@
+package org.sweetieslab.model.order.validator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.validator.exception.AddressValidationException;
+
+public class CompiledAddressValidator implements AddressValidator {
+
+  private final Map<String, Set<String>> buildingsVsRooms;
+  private final String[] buildings;
+  private final String[] rooms;
+  private final int mask;
+
+  public CompiledAddressValidator(Map<String, Set<String>> buildingsVsRooms) {
+    Map<String, Set<String>> copy = new HashMap<>();
+    buildingsVsRooms.forEach((building, buildingRooms) ->
+        copy.put(building, Set.copyOf(buildingRooms)));
+    this.buildingsVsRooms = Map.copyOf(copy);
+    int entries = this.buildingsVsRooms.values().stream().mapToInt(Set::size).sum();
+    int capacity = Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1;
+    this.buildings = new String[capacity];
+    this.rooms = new String[capacity];
+    this.mask = capacity - 1;
+    this.buildingsVsRooms.forEach((building, buildingRooms) ->
+        buildingRooms.forEach(room -> insert(building, room)));
+  }
+
+  private static int hash(String building, String room) {
+    int hash = building.hashCode() * 31 + room.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private void insert(String building, String room) {
+    int index = hash(building, room) & mask;
+    while (buildings[index] != null) {
+      index = (index + 1) & mask;
+    }
+    buildings[index] = building;
+    rooms[index] = room;
+  }
+
+  private boolean contains(String building, String room) {
+    for (int index = hash(building, room) & mask; buildings[index] != null;
+        index = (index + 1) & mask) {
+      if (building.equals(buildings[index]) && room.equals(rooms[index])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void validate(Address address) {
+    String building = address.getBuilding();
+    String room = address.getRoom();
+    if (building == null || building.isBlank()) {
+      throw new AddressValidationException("Invalid address: building not set");
+    }
+    if (room == null || room.isBlank()) {
+      throw new AddressValidationException("Invalid address: room not set");
+    }
+    if (!contains(building, room)) {
+      throw new AddressValidationException(buildingsVsRooms.containsKey(building)
+          ? "Invalid address: room not found" : "Invalid address: building not found");
+    }
+  }
+
+  @Override
+  public Map<String, Set<String>> getValidBuildingsVsRooms() {
+    return buildingsVsRooms;
+  }
+}
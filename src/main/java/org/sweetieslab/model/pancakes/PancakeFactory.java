@@ -5,11 +5,18 @@ import java.util.EnumSet;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class PancakeFactory {
 
-  private static final ConcurrentMap<EnumMap<Ingredient, Integer>, PancakeRecipe> PANCAKES
-      = new ConcurrentHashMap<>();
+  private static final int INITIAL_CAPACITY = 64;
+  private static final ReentrantLock INTERN_LOCK = new ReentrantLock();
+  private static volatile AtomicReferenceArray<PancakeRecipe> recipesByFingerprint =
+      new AtomicReferenceArray<>(INITIAL_CAPACITY);
+  private static volatile AtomicReferenceArray<PancakeRecipe> recipesById =
+      new AtomicReferenceArray<>(INITIAL_CAPACITY);
+  private static volatile int recipesCount;
   private static final ConcurrentMap<String, PancakeRecipe> POPULAR_PANCAKES
       = new ConcurrentHashMap<>();
   private static final java.util.Random random = new java.util.Random();
@@ -54,11 +61,23 @@ public class PancakeFactory {
   }
 
   public static PancakeRecipe getPancakeRecipe(EnumMap<Ingredient, Integer> ingredients) {
-    PancakeRecipe result = PANCAKES.get(ingredients);
+    long fingerprint = PancakeRecipe.fingerprint(ingredients);
+    PancakeRecipe result = findPancakeRecipe(recipesByFingerprint, fingerprint, ingredients);
     if (result != null) {
       return result;
     }
-    return addPancakeRecipe(ingredients);
+    return addPancakeRecipe(fingerprint, ingredients);
+  }
+
+  public static PancakeRecipe getPancakeRecipe(int id) {
+    if (id >= 0 && id < recipesCount) {
+      return recipesById.get(id);
+    }
+    throw new IllegalStateException("No such pancake recipe: " + id);
+  }
+
+  public static int getPancakeRecipesCount() {
+    return recipesCount;
   }
 
   public static PancakeRecipe getDarkChocolateWhippedCreamPancakeRecipe() {
@@ -116,14 +135,77 @@ public class PancakeFactory {
     throw new IllegalStateException("No such pancake recipe: " + name);
   }
 
-  private static PancakeRecipe addPancakeRecipe(EnumMap<Ingredient, Integer> ingredients) {
-    PancakeRecipe pancake = new PancakeRecipe(ingredients);
-    PANCAKES.put(ingredients, pancake);
-    return pancake;
+  private static PancakeRecipe findPancakeRecipe(AtomicReferenceArray<PancakeRecipe> table,
+      long fingerprint, EnumMap<Ingredient, Integer> ingredients) {
+    int mask = table.length() - 1;
+    for (int slot = slotOf(fingerprint, mask); ; slot = (slot + 1) & mask) {
+      PancakeRecipe candidate = table.get(slot);
+      if (candidate == null) {
+        return null;
+      }
+      if (candidate.getFingerprint() == fingerprint && candidate.matches(ingredients)) {
+        return candidate;
+      }
+    }
+  }
+
+  private static PancakeRecipe addPancakeRecipe(long fingerprint,
+      EnumMap<Ingredient, Integer> ingredients) {
+    INTERN_LOCK.lock();
+    try {
+      PancakeRecipe existing = findPancakeRecipe(recipesByFingerprint, fingerprint, ingredients);
+      if (existing != null) {
+        return existing;
+      }
+      int id = recipesCount;
+      PancakeRecipe pancake = new PancakeRecipe(id, ingredients);
+      if (id == recipesById.length()) {
+        recipesById = copyOf(recipesById, id * 2);
+      }
+      recipesById.set(id, pancake);
+      if ((id + 1) * 2 > recipesByFingerprint.length()) {
+        recipesByFingerprint = rehash(recipesByFingerprint.length() * 2);
+      }
+      insert(recipesByFingerprint, pancake);
+      recipesCount = id + 1;
+      return pancake;
+    } finally {
+      INTERN_LOCK.unlock();
+    }
+  }
+
+  private static AtomicReferenceArray<PancakeRecipe> copyOf(
+      AtomicReferenceArray<PancakeRecipe> source, int capacity) {
+    AtomicReferenceArray<PancakeRecipe> copy = new AtomicReferenceArray<>(capacity);
+    for (int i = 0; i < source.length(); i++) {
+      copy.set(i, source.get(i));
+    }
+    return copy;
+  }
+
+  private static AtomicReferenceArray<PancakeRecipe> rehash(int capacity) {
+    AtomicReferenceArray<PancakeRecipe> table = new AtomicReferenceArray<>(capacity);
+    for (int id = 0; id < recipesCount; id++) {
+      insert(table, recipesById.get(id));
+    }
+    return table;
+  }
+
+  private static void insert(AtomicReferenceArray<PancakeRecipe> table, PancakeRecipe pancake) {
+    int mask = table.length() - 1;
+    int slot = slotOf(pancake.getFingerprint(), mask);
+    while (table.get(slot) != null) {
+      slot = (slot + 1) & mask;
+    }
+    table.set(slot, pancake);
+  }
+
+  private static int slotOf(long fingerprint, int mask) {
+    return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
   }
 
   private static void addPopularPancakeRecipe(EnumMap<Ingredient, Integer> ingredients,
       String name) {
-    POPULAR_PANCAKES.put(name, addPancakeRecipe(ingredients));
+    POPULAR_PANCAKES.put(name, getPancakeRecipe(ingredients));
   }
 }
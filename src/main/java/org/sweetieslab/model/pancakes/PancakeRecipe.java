@@ -1,29 +1,111 @@
 package org.sweetieslab.model.pancakes;
 
+import java.util.Arrays;
 import java.util.EnumMap;
-import java.util.Objects;
 
 public class PancakeRecipe {
 
-    private final EnumMap<Ingredient, Integer> ingredients;
+    private static final Ingredient[] INGREDIENTS = Ingredient.values();
+    private static final long FINGERPRINT_SEED = 0x9E3779B97F4A7C15L;
+
+    private final int id;
+    private final long fingerprint;
+    private final long ingredientMask;
+    private final int[] quantities;
+    private final String description;
 
     public PancakeRecipe(EnumMap<Ingredient, Integer> ingredients) {
-        this.ingredients = ingredients;
+        this(PancakeFactory.getPancakeRecipe(ingredients).getId(), ingredients);
+    }
+
+    PancakeRecipe(int id, EnumMap<Ingredient, Integer> ingredients) {
+        if (ingredients.containsValue(null)) {
+            throw new IllegalArgumentException("Quantity not set for ingredients: " + ingredients);
+        }
+        this.id = id;
+        this.fingerprint = fingerprint(ingredients);
+        this.quantities = new int[INGREDIENTS.length];
+        long mask = 0L;
+        for (Ingredient ingredient : ingredients.keySet()) {
+            mask |= 1L << ingredient.ordinal();
+            quantities[ingredient.ordinal()] = ingredients.get(ingredient);
+        }
+        this.ingredientMask = mask;
+        this.description = describe();
+    }
+
+    static long fingerprint(EnumMap<Ingredient, Integer> ingredients) {
+        long hash = FINGERPRINT_SEED;
+        for (Ingredient ingredient : INGREDIENTS) {
+            Integer quantity = ingredients.get(ingredient);
+            if (quantity != null) {
+                hash = mix(hash ^ (((long) ingredient.ordinal() << 32) | (quantity & 0xFFFFFFFFL)));
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    boolean matches(EnumMap<Ingredient, Integer> ingredients) {
+        if (ingredients.size() != Long.bitCount(ingredientMask)) {
+            return false;
+        }
+        for (Ingredient ingredient : INGREDIENTS) {
+            Integer quantity = ingredients.get(ingredient);
+            boolean present = (ingredientMask & (1L << ingredient.ordinal())) != 0;
+            if (quantity == null ? present
+                : !present || quantity != quantities[ingredient.ordinal()]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getIngredientMask() {
+        return ingredientMask;
+    }
+
+    public boolean contains(Ingredient ingredient) {
+        return (ingredientMask & (1L << ingredient.ordinal())) != 0;
+    }
+
+    public int getQuantity(Ingredient ingredient) {
+        return quantities[ingredient.ordinal()];
     }
 
     public EnumMap<Ingredient, Integer> getIngredients() {
-        return new EnumMap<>(ingredients);
+        EnumMap<Ingredient, Integer> ingredients = new EnumMap<>(Ingredient.class);
+        for (Ingredient ingredient : INGREDIENTS) {
+            if (contains(ingredient)) {
+                ingredients.put(ingredient, quantities[ingredient.ordinal()]);
+            }
+        }
+        return ingredients;
     }
 
-    @Override
-    public String toString() {
+    private String describe() {
         StringBuilder description = new StringBuilder("Delicious pancake with ");
-        ingredients.forEach((ingredient, quantity) ->
-            description.append(ingredient.name().toLowerCase().replace('_', ' '))
-                .append(" (")
-                .append(quantity)
-                .append("), ")
-        );
+        for (Ingredient ingredient : INGREDIENTS) {
+            if (contains(ingredient)) {
+                description.append(ingredient.name().toLowerCase().replace('_', ' '))
+                    .append(" (")
+                    .append(quantities[ingredient.ordinal()])
+                    .append("), ");
+            }
+        }
         if (!description.isEmpty()) {
             description.setLength(description.length() - 2);
         }
@@ -31,9 +113,14 @@ public class PancakeRecipe {
         return description.toString();
     }
 
+    @Override
+    public String toString() {
+        return description;
+    }
+
     @Override
     public int hashCode() {
-        return ingredients.hashCode();
+        return (int) (fingerprint ^ (fingerprint >>> 32));
     }
 
     @Override
@@ -41,9 +128,10 @@ public class PancakeRecipe {
         if (this == obj) {
             return true;
         }
-        if (!(obj instanceof PancakeRecipe)) {
+        if (!(obj instanceof PancakeRecipe other)) {
             return false;
         }
-        return Objects.equals(ingredients, ((PancakeRecipe) obj).ingredients);
+        return fingerprint == other.fingerprint && ingredientMask == other.ingredientMask
+            && Arrays.equals(quantities, other.quantities);
     }
 }
@@ -0,0 +1,24 @@
+package org.sweetieslab.service;
+
+public enum Backpressure {
+  NONE,
+  ELEVATED,
+  SATURATED;
+
+  public static final double ELEVATED_FILL = 0.5;
+  public static final double SATURATED_FILL = 0.9;
+
+  public static Backpressure of(int size, int remainingCapacity) {
+    if (remainingCapacity == Integer.MAX_VALUE) {
+      return NONE;
+    }
+    if (remainingCapacity == 0) {
+      return SATURATED;
+    }
+    double fill = (double) size / ((long) size + remainingCapacity);
+    if (fill >= SATURATED_FILL) {
+      return SATURATED;
+    }
+    return fill >= ELEVATED_FILL ? ELEVATED : NONE;
+  }
+}
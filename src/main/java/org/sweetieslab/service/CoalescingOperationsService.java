@@ -0,0 +1,211 @@
+package org.sweetieslab.service;
+
+import static org.sweetieslab.service.CollectionsOperationsService.COOK_TIME_MILLIS;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OperationsServiceException;
+
+public class CoalescingOperationsService implements OperationsService {
+
+  public static final int GRIDDLE_CAPACITY = 4;
+  public static final int MAX_ORDERS_PER_CYCLE = 16;
+
+  private final DataService dataService;
+  private final BlockingQueue<Order> completed;
+  private final BlockingQueue<Order> prepared;
+  private final long cookTimeMillis;
+  private final int griddleCapacity;
+  private final int maxOrdersPerCycle;
+
+  public CoalescingOperationsService(DataService dataService) {
+    this(new Builder(dataService));
+  }
+
+  private CoalescingOperationsService(Builder builder) {
+    if (builder.cookTimeMillis < 0) {
+      throw new IllegalArgumentException("Invalid cook time: " + builder.cookTimeMillis);
+    }
+    if (builder.griddleCapacity < 1) {
+      throw new IllegalArgumentException("Invalid griddle capacity: " + builder.griddleCapacity);
+    }
+    if (builder.maxOrdersPerCycle < 1) {
+      throw new IllegalArgumentException(
+          "Invalid orders per cycle: " + builder.maxOrdersPerCycle);
+    }
+    this.dataService = Objects.requireNonNull(builder.dataService);
+    this.completed = builder.queueFactory.get();
+    this.prepared = builder.queueFactory.get();
+    this.cookTimeMillis = builder.cookTimeMillis;
+    this.griddleCapacity = builder.griddleCapacity;
+    this.maxOrdersPerCycle = builder.maxOrdersPerCycle;
+  }
+
+  @Override
+  public void completeOrder(Order order) {
+    StageQueues.put(completed, order, StageQueues.COMPLETED);
+  }
+
+  @Override
+  public Order prepareOrder(PreparationListener listener, long timeout, TimeUnit unit) {
+    Order first = StageQueues.poll(completed, timeout, unit, StageQueues.COMPLETED);
+    if (first == null) {
+      return null;
+    }
+    List<Order> orders = new ArrayList<>();
+    orders.add(first);
+    completed.drainTo(orders, maxOrdersPerCycle - 1);
+
+    int size = orders.size();
+    RuntimeException failure = null;
+    List<Map<PancakeRecipe, Integer>> remaining = new ArrayList<>(size);
+    int[] remainingCounts = new int[size];
+    boolean[] started = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      Order order = orders.get(i);
+      Map<PancakeRecipe, Integer> pancakes = new HashMap<>();
+      try {
+        pancakes.putAll(dataService.getPancakes(order.getId()));
+        listener.preparationStarted(order);
+        started[i] = true;
+      } catch (RuntimeException e) {
+        failure = StageQueues.addFailure(failure, e);
+        pancakes.clear();
+      }
+      remaining.add(pancakes);
+      remainingCounts[i] = pancakes.values().stream().mapToInt(Integer::intValue).sum();
+    }
+    for (int i = 0; i < size; i++) {
+      if (started[i] && remainingCounts[i] == 0) {
+        failure = publish(orders.get(i), listener, failure);
+      }
+    }
+    boolean interrupted = false;
+    for (int oldest = nextUnfinished(remainingCounts, 0); oldest < size;
+        oldest = nextUnfinished(remainingCounts, oldest)) {
+      PancakeRecipe recipe = remaining.get(oldest).keySet().iterator().next();
+      try {
+        StageQueues.cook(cookTimeMillis);
+      } catch (OperationsServiceException e) {
+        interrupted = Thread.interrupted();
+        failure = StageQueues.addFailure(failure, e);
+        break;
+      }
+      int free = griddleCapacity;
+      for (int i = oldest; i < size && free > 0; i++) {
+        Map<PancakeRecipe, Integer> pancakes = remaining.get(i);
+        Integer needed = pancakes.get(recipe);
+        if (needed == null) {
+          continue;
+        }
+        int served = Math.min(needed, free);
+        free -= served;
+        remainingCounts[i] -= served;
+        if (served == needed) {
+          pancakes.remove(recipe);
+        } else {
+          pancakes.put(recipe, needed - served);
+        }
+        if (remainingCounts[i] == 0) {
+          failure = publish(orders.get(i), listener, failure);
+        }
+      }
+    }
+    // An interrupted cycle still hands the started orders on, so the flag is restored afterwards.
+    for (int i = 0; i < size; i++) {
+      if (remainingCounts[i] > 0) {
+        failure = publish(orders.get(i), listener, failure);
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return first;
+  }
+
+  private static int nextUnfinished(int[] remainingCounts, int from) {
+    int index = from;
+    while (index < remainingCounts.length && remainingCounts[index] == 0) {
+      index++;
+    }
+    return index;
+  }
+
+  private RuntimeException publish(Order order, PreparationListener listener,
+      RuntimeException failure) {
+    try {
+      listener.orderPrepared(order);
+      StageQueues.put(prepared, order, StageQueues.PREPARED);
+      listener.orderQueued(order);
+      return failure;
+    } catch (RuntimeException e) {
+      return StageQueues.addFailure(failure, e);
+    }
+  }
+
+  @Override
+  public Order deliverOrder(long timeout, TimeUnit unit) {
+    return StageQueues.poll(prepared, timeout, unit, StageQueues.PREPARED);
+  }
+
+  @Override
+  public Set<UUID> listCompletedOrders() {
+    return StageQueues.listOrders(completed);
+  }
+
+  @Override
+  public Set<UUID> listPreparedOrders() {
+    return StageQueues.listOrders(prepared);
+  }
+
+  public static class Builder {
+
+    private final DataService dataService;
+    private Supplier<BlockingQueue<Order>> queueFactory = LinkedBlockingQueue::new;
+    private long cookTimeMillis = COOK_TIME_MILLIS;
+    private int griddleCapacity = GRIDDLE_CAPACITY;
+    private int maxOrdersPerCycle = MAX_ORDERS_PER_CYCLE;
+
+    public Builder(DataService dataService) {
+      this.dataService = dataService;
+    }
+
+    public Builder queueFactory(Supplier<BlockingQueue<Order>> queueFactory) {
+      this.queueFactory = queueFactory;
+      return this;
+    }
+
+    public Builder cookTimeMillis(long cookTimeMillis) {
+      this.cookTimeMillis = cookTimeMillis;
+      return this;
+    }
+
+    public Builder griddleCapacity(int griddleCapacity) {
+      this.griddleCapacity = griddleCapacity;
+      return this;
+    }
+
+    public Builder maxOrdersPerCycle(int maxOrdersPerCycle) {
+      this.maxOrdersPerCycle = maxOrdersPerCycle;
+      return this;
+    }
+
+    public CoalescingOperationsService build() {
+      return new CoalescingOperationsService(this);
+    }
+  }
+}
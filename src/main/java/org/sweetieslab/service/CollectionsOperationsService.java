@@ -1,83 +1,371 @@
 package org.sweetieslab.service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.sweetieslab.model.order.Order;
 import org.sweetieslab.service.exception.OperationsServiceException;
+import org.sweetieslab.service.exception.OrderRejectedException;
 
-public class CollectionsOperationsService implements OperationsService {
+public class CollectionsOperationsService implements OperationsService,
+    CollectionsOperationsServiceMXBean {
 
-  public static final long TIMEOUT = 15L;
-  private final BlockingQueue<Order> completed = new LinkedBlockingQueue<>();
-  private final BlockingQueue<Order> prepared = new LinkedBlockingQueue<>();
+  private static final Logger LOGGER = Logger.getLogger(
+      CollectionsOperationsService.class.getName());
+
+  public static final long COOK_TIME_MILLIS = 500L;
+  public static final String REJECTED_ORDER_MESSAGE = "Completed queue full, rejected order: ";
+  private final BlockingQueue<Order> completed;
+  private final BlockingQueue<Order> prepared;
+  private final long cookTimeMillis;
+  private final int batchSize;
+  private final long batchWindowNanos;
+  private final OverloadPolicy overloadPolicy;
+  private final long admissionTimeoutMillis;
+  private final StageIndex completedIndex = new StageIndex();
+  private final StageIndex preparedIndex = new StageIndex();
+  private final LongAdder ordersRejected = new LongAdder();
+  private final LongAdder ordersShed = new LongAdder();
+  private volatile Consumer<Order> shedOrderHandler = order -> {
+  };
+
+  public CollectionsOperationsService() {
+    this(new Builder());
+  }
+
+  public CollectionsOperationsService(Supplier<BlockingQueue<Order>> queueFactory,
+      long cookTimeMillis) {
+    this(new Builder().queueFactory(queueFactory).cookTimeMillis(cookTimeMillis));
+  }
+
+  private CollectionsOperationsService(Builder builder) {
+    if (builder.cookTimeMillis < 0) {
+      throw new IllegalArgumentException("Invalid cook time: " + builder.cookTimeMillis);
+    }
+    if (builder.batchSize < 1) {
+      throw new IllegalArgumentException("Invalid batch size: " + builder.batchSize);
+    }
+    if (builder.batchWindowMillis < 0) {
+      throw new IllegalArgumentException("Invalid batch window: " + builder.batchWindowMillis);
+    }
+    if (builder.capacity != null && builder.capacity < 1) {
+      throw new IllegalArgumentException("Invalid capacity: " + builder.capacity);
+    }
+    if (builder.capacity != null && builder.queueFactory != null) {
+      throw new IllegalArgumentException("Capacity cannot be combined with a queue factory");
+    }
+    if (builder.admissionTimeoutMillis < 0) {
+      throw new IllegalArgumentException(
+          "Invalid admission timeout: " + builder.admissionTimeoutMillis);
+    }
+    Supplier<BlockingQueue<Order>> queueFactory = builder.queueFactory != null
+        ? builder.queueFactory : () -> new LinkedBlockingQueue<>(
+        builder.capacity != null ? builder.capacity : Integer.MAX_VALUE);
+    this.completed = queueFactory.get();
+    this.prepared = queueFactory.get();
+    this.cookTimeMillis = builder.cookTimeMillis;
+    this.batchSize = builder.batchSize;
+    this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(builder.batchWindowMillis);
+    this.overloadPolicy = builder.overloadPolicy;
+    this.admissionTimeoutMillis = builder.admissionTimeoutMillis;
+  }
 
   @Override
   public void completeOrder(Order order) {
+    completedIndex.add(order.getId());
+    boolean admitted = false;
     try {
-      completed.put(order);
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new OperationsServiceException("Interrupted while adding order to completed queue");
+      admit(order);
+      admitted = true;
+    } finally {
+      if (!admitted) {
+        completedIndex.remove(order.getId());
+      }
+    }
+  }
+
+  private void admit(Order order) {
+    switch (overloadPolicy) {
+      case BLOCK -> {
+        try {
+          if (!completed.offer(order, admissionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            ordersRejected.increment();
+            throw new OrderRejectedException(REJECTED_ORDER_MESSAGE + order.getId());
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new OperationsServiceException(
+              "Interrupted while adding order to completed queue");
+        }
+      }
+      case REJECT -> {
+        if (!completed.offer(order)) {
+          ordersRejected.increment();
+          throw new OrderRejectedException(REJECTED_ORDER_MESSAGE + order.getId());
+        }
+      }
+      case SHED_OLDEST -> {
+        List<Order> shedOrders = new ArrayList<>(1);
+        while (!completed.offer(order)) {
+          Order shed = completed.poll();
+          if (shed != null) {
+            completedIndex.remove(shed.getId());
+            ordersShed.increment();
+            shedOrders.add(shed);
+          }
+        }
+        // The order is admitted at this point, so a failing handler must not undo the admission.
+        for (Order shed : shedOrders) {
+          try {
+            shedOrderHandler.accept(shed);
+          } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to handle shed order " + shed.getId(), e);
+          }
+        }
+      }
+    }
+  }
+
+  void restoreCompleted(Order order) {
+    restore(order, completed, completedIndex);
+  }
+
+  void restorePrepared(Order order) {
+    restore(order, prepared, preparedIndex);
+  }
+
+  private static void restore(Order order, BlockingQueue<Order> queue, StageIndex index) {
+    index.add(order.getId());
+    if (!queue.offer(order)) {
+      index.remove(order.getId());
+      throw new OrderRejectedException(REJECTED_ORDER_MESSAGE + order.getId());
     }
   }
 
   @Override
-  public Order prepareOrder() {
-    Order order;
-    try {
-      order = completed.poll(TIMEOUT, TimeUnit.SECONDS);
-      if (order == null) {
-        return null;
+  public void setShedOrderHandler(Consumer<Order> shedOrderHandler) {
+    this.shedOrderHandler = shedOrderHandler;
+  }
+
+  @Override
+  public Backpressure getBackpressure() {
+    return Backpressure.of(completed.size(), completed.remainingCapacity());
+  }
+
+  @Override
+  public Order prepareOrder(PreparationListener listener, long timeout, TimeUnit unit) {
+    List<Order> batch = takeBatch(timeout, unit);
+    if (batch.isEmpty()) {
+      return null;
+    }
+    batch.forEach(order -> completedIndex.remove(order.getId()));
+    RuntimeException failure = null;
+    List<Order> started = new ArrayList<>(batch.size());
+    for (Order order : batch) {
+      try {
+        listener.preparationStarted(order);
+        started.add(order);
+      } catch (RuntimeException e) {
+        failure = StageQueues.addFailure(failure, e);
       }
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new OperationsServiceException("Interrupted while taking order from completed queue");
     }
+    // An interrupted cook still hands the started orders on, so the flag is restored afterwards.
+    boolean interrupted = false;
     try {
-      Thread.sleep(500);
-    } catch (InterruptedException e) {
+      StageQueues.cook(cookTimeMillis);
+    } catch (OperationsServiceException e) {
+      interrupted = Thread.interrupted();
+      failure = StageQueues.addFailure(failure, e);
+    }
+    for (Order order : started) {
+      try {
+        queuePrepared(order, listener);
+      } catch (RuntimeException e) {
+        failure = StageQueues.addFailure(failure, e);
+      }
+    }
+    if (interrupted) {
       Thread.currentThread().interrupt();
-      throw new OperationsServiceException("Interrupted while preparing order");
     }
+    if (failure != null) {
+      throw failure;
+    }
+    return batch.get(0);
+  }
+
+  private void queuePrepared(Order order, PreparationListener listener) {
+    listener.orderPrepared(order);
+    preparedIndex.add(order.getId());
     try {
-      prepared.put(order);
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new OperationsServiceException("Interrupted while adding order to prepared queue");
+      StageQueues.put(prepared, order, StageQueues.PREPARED);
+    } catch (RuntimeException e) {
+      preparedIndex.remove(order.getId());
+      throw e;
     }
-    return order;
+    listener.orderQueued(order);
   }
 
-  @Override
-  public Order deliverOrder() {
-    Order order;
+  private List<Order> takeBatch(long timeout, TimeUnit unit) {
+    List<Order> batch = new ArrayList<>(Math.min(batchSize, 64));
     try {
-      order = prepared.poll(TIMEOUT, TimeUnit.SECONDS);
+      Order order = completed.poll(timeout, unit);
       if (order == null) {
-        return null;
+        return batch;
+      }
+      batch.add(order);
+      if (batchSize == 1) {
+        return batch;
+      }
+      completed.drainTo(batch, batchSize - batch.size());
+      long deadline = System.nanoTime() + batchWindowNanos;
+      while (batch.size() < batchSize) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 || (order = completed.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+          break;
+        }
+        batch.add(order);
+        completed.drainTo(batch, batchSize - batch.size());
       }
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
-      throw new OperationsServiceException("Interrupted while taking order from prepared queue");
+      if (batch.isEmpty()) {
+        throw new OperationsServiceException(
+            "Interrupted while taking order from completed queue");
+      }
+    }
+    return batch;
+  }
+
+  @Override
+  public Order deliverOrder(long timeout, TimeUnit unit) {
+    Order order = StageQueues.poll(prepared, timeout, unit, StageQueues.PREPARED);
+    if (order != null) {
+      preparedIndex.remove(order.getId());
     }
     return order;
   }
 
   @Override
   public Set<UUID> listCompletedOrders() {
-    return listOrders(completed);
+    return completedIndex.orders();
   }
 
   @Override
   public Set<UUID> listPreparedOrders() {
-    return listOrders(prepared);
+    return preparedIndex.orders();
+  }
+
+  @Override
+  public boolean isCompletedOrder(UUID orderId) {
+    return completedIndex.contains(orderId);
+  }
+
+  @Override
+  public boolean isPreparedOrder(UUID orderId) {
+    return preparedIndex.contains(orderId);
+  }
+
+  @Override
+  public int countCompletedOrders() {
+    return completedIndex.size();
+  }
+
+  @Override
+  public int countPreparedOrders() {
+    return preparedIndex.size();
+  }
+
+  @Override
+  public OrderPage pageCompletedOrders(long cursor, int limit) {
+    return completedIndex.page(cursor, limit);
+  }
+
+  @Override
+  public OrderPage pagePreparedOrders(long cursor, int limit) {
+    return preparedIndex.page(cursor, limit);
+  }
+
+  @Override
+  public int getCompletedQueueDepth() {
+    return completed.size();
+  }
+
+  @Override
+  public int getPreparedQueueDepth() {
+    return prepared.size();
+  }
+
+  @Override
+  public long getOrdersRejected() {
+    return ordersRejected.sum();
+  }
+
+  @Override
+  public long getOrdersShed() {
+    return ordersShed.sum();
   }
 
-  private Set<UUID> listOrders(BlockingQueue<Order> queue) {
-    return queue.stream().map(Order::getId).collect(Collectors.toSet());
+  @Override
+  public String getBackpressureLevel() {
+    return getBackpressure().name();
+  }
+
+  public static class Builder {
+
+    private Supplier<BlockingQueue<Order>> queueFactory;
+    private long cookTimeMillis = COOK_TIME_MILLIS;
+    private int batchSize = 1;
+    private long batchWindowMillis;
+    private Integer capacity;
+    private OverloadPolicy overloadPolicy = OverloadPolicy.BLOCK;
+    private long admissionTimeoutMillis = TimeUnit.SECONDS.toMillis(TIMEOUT);
+
+    public Builder queueFactory(Supplier<BlockingQueue<Order>> queueFactory) {
+      this.queueFactory = queueFactory;
+      return this;
+    }
+
+    public Builder cookTimeMillis(long cookTimeMillis) {
+      this.cookTimeMillis = cookTimeMillis;
+      return this;
+    }
+
+    public Builder batchSize(int batchSize) {
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    public Builder batchWindowMillis(long batchWindowMillis) {
+      this.batchWindowMillis = batchWindowMillis;
+      return this;
+    }
+
+    public Builder capacity(int capacity) {
+      this.capacity = capacity;
+      return this;
+    }
+
+    public Builder overloadPolicy(OverloadPolicy overloadPolicy) {
+      this.overloadPolicy = overloadPolicy;
+      return this;
+    }
+
+    public Builder admissionTimeoutMillis(long admissionTimeoutMillis) {
+      this.admissionTimeoutMillis = admissionTimeoutMillis;
+      return this;
+    }
+
+    public CollectionsOperationsService build() {
+      return new CollectionsOperationsService(this);
+    }
   }
 }
@@ -0,0 +1,14 @@
+package org.sweetieslab.service;
+
+public interface CollectionsOperationsServiceMXBean {
+
+  int getCompletedQueueDepth();
+
+  int getPreparedQueueDepth();
+
+  long getOrdersRejected();
+
+  long getOrdersShed();
+
+  String getBackpressureLevel();
+}
@@ -3,9 +3,12 @@ package org.sweetieslab.service;
 import static java.util.Collections.nCopies;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import java.util.logging.Logger;
 import org.sweetieslab.model.order.Order;
 import org.sweetieslab.model.pancakes.PancakeRecipe;
@@ -13,30 +16,55 @@ import org.sweetieslab.service.exception.OrderNotFoundException;
 import org.sweetieslab.service.exception.OrderUpdateException;
 import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
 
-public class ConcurrentMapDataService implements DataService {
+public class ConcurrentMapDataService implements DataService, ConcurrentMapDataServiceMXBean {
 
   private static final Logger LOGGER = Logger.getLogger(ConcurrentMapDataService.class.getName());
 
   private ConcurrentMap<UUID, Order> orders = new ConcurrentHashMap<>();
   private ConcurrentMap<UUID, ConcurrentMap<PancakeRecipe, Integer>> ordersVsPancakes =
       new ConcurrentHashMap<>();
+  private final LongAdder pancakesAdded = new LongAdder();
+  private final LongAdder pancakesRemoved = new LongAdder();
 
   @Override
-  public void addOrder(Order order) {
+  public Order addOrder(Order order) {
     UUID orderId = order.getId();
     orders.put(orderId, order);
     ordersVsPancakes.put(orderId, new ConcurrentHashMap<>());
+    return order;
+  }
+
+  @Override
+  public Order addOrder(Order order, Map<PancakeRecipe, Integer> pancakes) {
+    UUID orderId = order.getId();
+    ConcurrentMap<PancakeRecipe, Integer> orderPancakes = new ConcurrentHashMap<>(pancakes);
+    long total = 0;
+    for (int count : orderPancakes.values()) {
+      if (count < 1) {
+        throw new OrderUpdateException("Invalid count for adding: " + count);
+      }
+      total += count;
+    }
+    ordersVsPancakes.put(orderId, orderPancakes);
+    orders.put(orderId, order);
+    pancakesAdded.add(total);
+    return order;
   }
 
   @Override
   public Order getOrder(UUID orderId) {
-    Order order = orders.get(orderId);
+    Order order = findOrder(orderId);
     if (order == null) {
       throw new OrderNotFoundException("Order not found: " + orderId);
     }
     return order;
   }
 
+  @Override
+  public Order findOrder(UUID orderId) {
+    return orders.get(orderId);
+  }
+
   @Override
   public void addPancakes(PancakeRecipe pancake, UUID orderId, int count) {
     if (count < 1) {
@@ -47,7 +75,7 @@ public class ConcurrentMapDataService implements DataService {
       throw new PancakesNotFoundForOrder("Pancakes not found for order: " + orderId);
     }
     pancakes.merge(pancake, count, Integer::sum);
-    ordersVsPancakes.putIfAbsent(orderId, pancakes);
+    pancakesAdded.add(count);
   }
 
   @Override
@@ -61,6 +89,7 @@ public class ConcurrentMapDataService implements DataService {
       LOGGER.warning("Pancake not found for removal: " + pancake);
     } else {
       pancakes.compute(pancake, (k, v) -> {
+        pancakesRemoved.add(Math.min(v, count));
         int newNumber = v - count;
         return newNumber > 0 ? newNumber : null;
       });
@@ -85,6 +114,11 @@ public class ConcurrentMapDataService implements DataService {
     return getOrderPancakes(orderId).values().stream().mapToInt(Integer::intValue).sum();
   }
 
+  @Override
+  public Map<PancakeRecipe, Integer> getPancakes(UUID orderId) {
+    return Map.copyOf(getOrderPancakes(orderId));
+  }
+
   @Override
   public List<String> getPancakesDescriptions(UUID orderId) {
     return getOrderPancakes(orderId).entrySet()
@@ -98,4 +132,28 @@ public class ConcurrentMapDataService implements DataService {
     ordersVsPancakes.remove(orderId);
     return orders.remove(orderId);
   }
+
+  void forEachOrder(BiConsumer<Order, Map<PancakeRecipe, Integer>> action) {
+    orders.forEach((orderId, order) -> {
+      Map<PancakeRecipe, Integer> pancakes = ordersVsPancakes.get(orderId);
+      if (pancakes != null) {
+        action.accept(order, pancakes);
+      }
+    });
+  }
+
+  @Override
+  public long getStoredOrders() {
+    return orders.size();
+  }
+
+  @Override
+  public long getPancakesAdded() {
+    return pancakesAdded.sum();
+  }
+
+  @Override
+  public long getPancakesRemoved() {
+    return pancakesRemoved.sum();
+  }
 }
@@ -0,0 +1,10 @@
+package org.sweetieslab.service;
+
+public interface ConcurrentMapDataServiceMXBean {
+
+  long getStoredOrders();
+
+  long getPancakesAdded();
+
+  long getPancakesRemoved();
+}
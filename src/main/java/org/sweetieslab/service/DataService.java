@@ -1,16 +1,25 @@
 package org.sweetieslab.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.sweetieslab.model.order.Order;
 import org.sweetieslab.model.pancakes.PancakeRecipe;
 
 public interface DataService {
 
-  void addOrder(Order order);
+  Order addOrder(Order order);
+
+  default Order addOrder(Order order, Map<PancakeRecipe, Integer> pancakes) {
+    Order stored = addOrder(order);
+    pancakes.forEach((pancake, count) -> addPancakes(pancake, order.getId(), count));
+    return stored;
+  }
 
   Order getOrder(UUID orderId);
 
+  Order findOrder(UUID orderId);
+
   void addPancakes(PancakeRecipe pancake, UUID orderId, int number);
 
   void removePancakes(PancakeRecipe pancake, UUID orderId, int number);
@@ -21,5 +30,7 @@ public interface DataService {
 
   int getPancakesCount(UUID orderId);
 
+  Map<PancakeRecipe, Integer> getPancakes(UUID orderId);
+
   List<String> getPancakesDescriptions(UUID orderId);
 }
@@ -1,19 +1,31 @@
 package org.sweetieslab.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.logging.Logger;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import org.sweetieslab.model.order.Address;
 import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
 import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderStateException;
+import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+import org.sweetieslab.service.journal.LifecycleEventType;
+import org.sweetieslab.service.journal.LifecycleJournal;
+import org.sweetieslab.service.metrics.ExceptionCounters;
+import org.sweetieslab.service.metrics.LatencySnapshot;
+import org.sweetieslab.service.metrics.LifecycleStage;
+import org.sweetieslab.service.metrics.StageLatencies;
 
-public class ManagementService {
-
-    private static final Logger LOGGER = Logger.getLogger(ManagementService.class.getName());
+public class ManagementService implements AutoCloseable, ManagementServiceMXBean {
 
     public static final String CREATED_ORDER_MESSAGE = "Created order %s for building %s, room %s";
+    public static final String SUBMITTED_ORDER_MESSAGE = """
+        Created order %s with %d pancakes for building %s, room %s""";
     public static final String ADDED_PANCAKES_MESSAGE = """
         Added %d pancake(s) with description '%s' to order %s containing %d pancakes,
          for building %s, room %s""";
@@ -24,110 +36,341 @@ public class ManagementService {
         Cancelled order %s with %d pancakes for building %s, room %s.""";
     public static final String COMPLETED_ORDER_MESSAGE = """
         Completed order %s with %d pancakes for building %s, room %s.""";
+    public static final String REOPENED_ORDER_MESSAGE = """
+        Reopened order %s with %d pancakes for building %s, room %s.""";
     public static final String PREPARED_ORDER_MESSAGE = """
         Prepared order %s with %d pancakes for building %s, room %s.""";
     public static final String DELIVERED_ORDER_MESSAGE = """
         Order %s with %d pancakes for building %s, room %s out for delivery.""";
+    public static final String ILLEGAL_STATE_MESSAGE = "Order %s is %s, expected %s";
 
     private final OperationsService operationsService;
     private final DataService dataService;
-    private final ReentrantLock prepareDeliverLoggingLock = new ReentrantLock();
+    private final LifecycleJournal journal;
+    private final StageLatencies stageLatencies = new StageLatencies();
+    private final ExceptionCounters exceptions = new ExceptionCounters();
+    private final LongAdder ordersCreated = new LongAdder();
+    private final LongAdder ordersCancelled = new LongAdder();
+    private final LongAdder ordersCompleted = new LongAdder();
+    private final LongAdder ordersPrepared = new LongAdder();
+    private final LongAdder ordersDelivered = new LongAdder();
+    private final List<Consumer<Order>> completionListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Order>> preparedListeners = new CopyOnWriteArrayList<>();
+    private final PreparationListener preparationListener = new PreparationListener() {
+        @Override
+        public void preparationStarted(Order order) {
+            transition(order, OrderStatus.COMPLETED, OrderStatus.PREPARING);
+            stageLatencies.record(LifecycleStage.COMPLETED_QUEUE, order);
+        }
+
+        @Override
+        public void orderPrepared(Order order) {
+            transition(order, OrderStatus.PREPARING, OrderStatus.PREPARED);
+            stageLatencies.record(LifecycleStage.COOK, order);
+            ordersPrepared.increment();
+            journal.record(LifecycleEventType.PREPARED, order, pancakesCount(order.getId()));
+        }
+
+        @Override
+        public void orderQueued(Order order) {
+            preparedListeners.forEach(listener -> listener.accept(order));
+        }
+    };
 
     public ManagementService(OperationsService operationsService, DataService dataService) {
+        this(operationsService, dataService, new LifecycleJournal());
+    }
+
+    public ManagementService(OperationsService operationsService, DataService dataService,
+        LifecycleJournal journal) {
         this.operationsService = operationsService;
         this.dataService = dataService;
+        this.journal = journal;
+        operationsService.setShedOrderHandler(this::shed);
     }
 
     public Order createOrder(Address address) {
-        Order order = new Order(address);
-        dataService.addOrder(order);
-        LOGGER.info(CREATED_ORDER_MESSAGE.formatted(order.getId(), order.getBuilding(),
-            order.getRoom()));
+        Order order;
+        try {
+            order = dataService.addOrder(new Order(address));
+        } catch (RuntimeException e) {
+            throw exceptions.record(e);
+        }
+        ordersCreated.increment();
+        journal.record(LifecycleEventType.CREATED, order, 0);
+        return order;
+    }
+
+    public Order submitOrder(OrderDraft draft) {
+        return submitOrder(draft, false);
+    }
+
+    public Order submitOrder(OrderDraft draft, boolean complete) {
+        Order order;
+        try {
+            order = dataService.addOrder(new Order(draft.getAddress()), draft.getPancakes());
+        } catch (RuntimeException e) {
+            throw exceptions.record(e);
+        }
+        ordersCreated.increment();
+        journal.record(LifecycleEventType.SUBMITTED, order, draft.getPancakesCount());
+        if (complete) {
+            completeOrder(order);
+        }
         return order;
     }
 
     public void addPancakes(PancakeRecipe pancake, UUID orderId, int count) {
-        dataService.addPancakes(pancake, orderId, count);
-        Order order = dataService.getOrder(orderId);
-        LOGGER.info(ADDED_PANCAKES_MESSAGE.formatted(count, pancake, orderId, count,
-            order.getBuilding(), order.getRoom()));
+        Order order = beginMutation(orderId);
+        try {
+            dataService.addPancakes(pancake, orderId, count);
+        } catch (RuntimeException e) {
+            throw exceptions.record(e);
+        } finally {
+            order.endMutation();
+        }
+        journal.record(LifecycleEventType.PANCAKES_ADDED, order, pancake, count, count);
     }
 
     public void removePancakes(PancakeRecipe pancake, UUID orderId, int count) {
-        dataService.removePancakes(pancake, orderId, count);
-        Order order = dataService.getOrder(orderId);
-        int pancakesCount = dataService.getPancakesCount(orderId);
-        LOGGER.info(REMOVED_PANCAKES_MESSAGE.formatted(count, pancake, order.getId(),
-            pancakesCount, order.getBuilding(), order.getRoom()));
+        Order order = beginMutation(orderId);
+        int pancakesCount;
+        try {
+            dataService.removePancakes(pancake, orderId, count);
+            pancakesCount = dataService.getPancakesCount(orderId);
+        } catch (RuntimeException e) {
+            throw exceptions.record(e);
+        } finally {
+            order.endMutation();
+        }
+        journal.record(LifecycleEventType.PANCAKES_REMOVED, order, pancake, count,
+            pancakesCount);
+    }
+
+    private Order beginMutation(UUID orderId) {
+        Order order = dataService.findOrder(orderId);
+        if (order == null) {
+            throw exceptions.record(
+                new PancakesNotFoundForOrder("Pancakes not found for order: " + orderId));
+        }
+        if (!order.beginMutation()) {
+            throw exceptions.record(new OrderStateException(ILLEGAL_STATE_MESSAGE.formatted(
+                orderId, order.getStatus(), OrderStatus.OPEN)));
+        }
+        return order;
+    }
+
+    private int pancakesCount(UUID orderId) {
+        try {
+            return dataService.getPancakesCount(orderId);
+        } catch (RuntimeException e) {
+            throw exceptions.record(e);
+        }
+    }
+
+    private void removeOrder(UUID orderId) {
+        try {
+            dataService.removeOrder(orderId);
+        } catch (RuntimeException e) {
+            throw exceptions.record(e);
+        }
+    }
+
+    private void transition(Order order, OrderStatus from, OrderStatus to) {
+        if (!order.transition(from, to)) {
+            throw exceptions.record(new OrderStateException(ILLEGAL_STATE_MESSAGE.formatted(
+                order.getId(), order.getStatus(), from)));
+        }
     }
 
     public Order getOrder(UUID orderId) {
-        return dataService.getOrder(orderId);
+        try {
+            return dataService.getOrder(orderId);
+        } catch (RuntimeException e) {
+            throw exceptions.record(e);
+        }
     }
 
     public List<String> viewOrder(UUID orderId) {
-        return dataService.getPancakesDescriptions(orderId);
+        try {
+            return dataService.getPancakesDescriptions(orderId);
+        } catch (RuntimeException e) {
+            throw exceptions.record(e);
+        }
     }
 
     public void cancelOrder(Order order) {
-        int pancakesCount = dataService.getPancakesCount(order.getId());
-        dataService.removeOrder(order.getId());
-        LOGGER.info(CANCELLED_ORDER_MESSAGE.formatted(order.getId(), pancakesCount,
-            order.getBuilding(), order.getRoom()));
+        transition(order, OrderStatus.OPEN, OrderStatus.CANCELLED);
+        discard(order);
     }
 
-    public void completeOrder(Order order) {
-        if (dataService.orderIsEmpty(order.getId())) {
-            cancelOrder(order);
+    private void discard(Order order) {
+        int pancakesCount = pancakesCount(order.getId());
+        removeOrder(order.getId());
+        ordersCancelled.increment();
+        journal.record(LifecycleEventType.CANCELLED, order, pancakesCount);
+    }
+
+    public Backpressure completeOrder(Order order) {
+        transition(order, OrderStatus.OPEN, OrderStatus.COMPLETED);
+        int pancakesCount = pancakesCount(order.getId());
+        if (pancakesCount == 0) {
+            transition(order, OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+            discard(order);
         } else {
-            operationsService.completeOrder(order);
-            int pancakesCount = dataService.getPancakesCount(order.getId());
-            LOGGER.info(COMPLETED_ORDER_MESSAGE.formatted(order.getId(), pancakesCount,
-                order.getBuilding(), order.getRoom()));
+            // Journalled before admission: once queued, the order can be shed or prepared at once.
+            journal.record(LifecycleEventType.COMPLETED, order, pancakesCount);
+            try {
+                operationsService.completeOrder(order);
+            } catch (RuntimeException e) {
+                transition(order, OrderStatus.COMPLETED, OrderStatus.OPEN);
+                journal.record(LifecycleEventType.REOPENED, order, pancakesCount);
+                throw exceptions.record(e);
+            }
+            ordersCompleted.increment();
+            completionListeners.forEach(listener -> listener.accept(order));
         }
+        return operationsService.getBackpressure();
+    }
+
+    private void shed(Order order) {
+        transition(order, OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+        discard(order);
+    }
+
+    public Backpressure getBackpressure() {
+        return operationsService.getBackpressure();
+    }
+
+    public void addCompletionListener(Consumer<Order> listener) {
+        completionListeners.add(listener);
+    }
+
+    public void removeCompletionListener(Consumer<Order> listener) {
+        completionListeners.remove(listener);
+    }
+
+    public void addPreparedListener(Consumer<Order> listener) {
+        preparedListeners.add(listener);
+    }
+
+    public void removePreparedListener(Consumer<Order> listener) {
+        preparedListeners.remove(listener);
     }
 
     public Set<UUID> listCompletedOrders() {
         return operationsService.listCompletedOrders();
     }
 
+    public boolean isCompletedOrder(UUID orderId) {
+        return operationsService.isCompletedOrder(orderId);
+    }
+
+    public int countCompletedOrders() {
+        return operationsService.countCompletedOrders();
+    }
+
+    public OrderPage pageCompletedOrders(long cursor, int limit) {
+        return operationsService.pageCompletedOrders(cursor, limit);
+    }
+
     public Order prepareOrder() {
-        Order order = operationsService.prepareOrder();
-        if (order == null) {
-            return null;
-        }
-        UUID orderId = order.getId();
-        int pancakesCount = dataService.getPancakesCount(orderId);
-        prepareDeliverLoggingLock.lock();
-        try {
-            LOGGER.info(PREPARED_ORDER_MESSAGE.formatted(orderId, pancakesCount,
-                order.getBuilding(), order.getRoom()));
-        } finally {
-            prepareDeliverLoggingLock.unlock();
-        }
-        return order;
+        return operationsService.prepareOrder(preparationListener);
+    }
+
+    public Order prepareOrder(long timeout, TimeUnit unit) {
+        return operationsService.prepareOrder(preparationListener, timeout, unit);
+    }
+
+    public Order prepareOrder(int worker, long timeout, TimeUnit unit) {
+        return operationsService.prepareOrder(worker, preparationListener, timeout, unit);
     }
 
     public Set<UUID> listPreparedOrders() {
         return operationsService.listPreparedOrders();
     }
 
+    public boolean isPreparedOrder(UUID orderId) {
+        return operationsService.isPreparedOrder(orderId);
+    }
+
+    public int countPreparedOrders() {
+        return operationsService.countPreparedOrders();
+    }
+
+    public OrderPage pagePreparedOrders(long cursor, int limit) {
+        return operationsService.pagePreparedOrders(cursor, limit);
+    }
+
     public Order deliverOrder() {
-        Order order = operationsService.deliverOrder();
+        return deliverOrder(OperationsService.TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    public Order deliverOrder(long timeout, TimeUnit unit) {
+        Order order = operationsService.deliverOrder(timeout, unit);
         if (order == null) {
             return null;
         }
+        transition(order, OrderStatus.PREPARED, OrderStatus.OUT_FOR_DELIVERY);
+        stageLatencies.record(LifecycleStage.PREPARED_QUEUE, order);
+        stageLatencies.record(LifecycleStage.END_TO_END, order);
         UUID orderId = order.getId();
-        int pancakesCount = dataService.getPancakesCount(orderId);
-        dataService.removeOrder(orderId);
-        prepareDeliverLoggingLock.lock();
-        try {
-            LOGGER.info(DELIVERED_ORDER_MESSAGE.formatted(order.getId(), pancakesCount,
-                order.getBuilding(), order.getRoom()));
-        } finally {
-            prepareDeliverLoggingLock.unlock();
-        }
-
+        int pancakesCount = pancakesCount(orderId);
+        removeOrder(orderId);
+        ordersDelivered.increment();
+        journal.record(LifecycleEventType.DELIVERED, order, pancakesCount);
         return order;
     }
+
+    public LatencySnapshot getLatency(LifecycleStage stage) {
+        return stageLatencies.snapshot(stage);
+    }
+
+    public Map<LifecycleStage, LatencySnapshot> getLatencies() {
+        return stageLatencies.snapshot();
+    }
+
+    @Override
+    public long getOrdersCreated() {
+        return ordersCreated.sum();
+    }
+
+    @Override
+    public long getOrdersCancelled() {
+        return ordersCancelled.sum();
+    }
+
+    @Override
+    public long getOrdersCompleted() {
+        return ordersCompleted.sum();
+    }
+
+    @Override
+    public long getOrdersPrepared() {
+        return ordersPrepared.sum();
+    }
+
+    @Override
+    public long getOrdersDelivered() {
+        return ordersDelivered.sum();
+    }
+
+    @Override
+    public long getInFlightOrders() {
+        return ordersCreated.sum() - ordersCancelled.sum() - ordersDelivered.sum();
+    }
+
+    @Override
+    public Map<String, Long> getExceptions() {
+        return exceptions.snapshot();
+    }
+
+    public void flushJournal() {
+        journal.flush();
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
 }
@@ -0,0 +1,20 @@
+package org.sweetieslab.service;
+
+import java.util.Map;
+
+public interface ManagementServiceMXBean {
+
+  long getOrdersCreated();
+
+  long getOrdersCancelled();
+
+  long getOrdersCompleted();
+
+  long getOrdersPrepared();
+
+  long getOrdersDelivered();
+
+  long getInFlightOrders();
+
+  Map<String, Long> getExceptions();
+}
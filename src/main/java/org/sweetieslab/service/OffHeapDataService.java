@@ -0,0 +1,803 @@
+package org.sweetieslab.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderNotFoundException;
+import org.sweetieslab.service.exception.OrderUpdateException;
+import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+
+public class OffHeapDataService implements DataService, AutoCloseable {
+
+  public static final int DEFAULT_SEGMENTS = 64;
+  public static final int DEFAULT_SEGMENT_CAPACITY = 1024;
+
+  private static final Logger LOGGER = Logger.getLogger(OffHeapDataService.class.getName());
+  private static final VarHandle INTS =
+      MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+  private static final OrderStatus[] STATUSES = OrderStatus.values();
+  private static final long MISSING = Long.MIN_VALUE;
+
+  private final Segment[] segments;
+  private final int segmentShift;
+  private final Names names = new Names();
+
+  public OffHeapDataService() {
+    this(new Builder());
+  }
+
+  private OffHeapDataService(Builder builder) {
+    int segments = builder.segments;
+    int segmentCapacity = builder.segmentCapacity;
+    if (segments < 1 || Integer.bitCount(segments) != 1) {
+      throw new IllegalArgumentException("Invalid number of segments: " + segments);
+    }
+    if (segmentCapacity < 2 || Integer.bitCount(segmentCapacity) != 1
+        || Segment.tableBytes(segmentCapacity) > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid segment capacity: " + segmentCapacity);
+    }
+    this.segments = new Segment[segments];
+    for (int i = 0; i < segments; i++) {
+      this.segments[i] = new Segment(segmentCapacity);
+    }
+    this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(segments);
+  }
+
+  static int hash(long mostSigBits, long leastSigBits) {
+    long hash = (mostSigBits ^ Long.rotateLeft(leastSigBits, 32)) * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  private Segment segmentFor(int hash) {
+    return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+  }
+
+  @Override
+  public Order addOrder(Order order) {
+    return addOrder(order, Map.of());
+  }
+
+  @Override
+  public Order addOrder(Order order, Map<PancakeRecipe, Integer> pancakes) {
+    pancakes.forEach((pancake, count) -> {
+      if (count < 1) {
+        throw new OrderUpdateException("Invalid count for adding: " + count);
+      }
+    });
+    int building = names.intern(order.getBuilding());
+    int room = names.intern(order.getRoom());
+    int lifecycle = OffHeapOrder.initialLifecycle(order);
+    long[] nanos = new long[STATUSES.length];
+    for (OrderStatus status : STATUSES) {
+      nanos[status.ordinal()] = order.getTransitionNanos(status);
+    }
+    UUID orderId = order.getId();
+    long msb = orderId.getMostSignificantBits();
+    long lsb = orderId.getLeastSignificantBits();
+    int hash = hash(msb, lsb);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.lock.writeLock();
+    try {
+      int slot = segment.insert(hash, msb, lsb);
+      segment.writeOrder(slot, building, room, lifecycle, nanos);
+      pancakes.forEach((pancake, count) -> segment.add(slot, pancake.getId(), count));
+      return new OffHeapOrder(this, orderId, segment, slot);
+    } finally {
+      segment.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public Order getOrder(UUID orderId) {
+    Order order = findOrder(orderId);
+    if (order == null) {
+      throw new OrderNotFoundException("Order not found: " + orderId);
+    }
+    return order;
+  }
+
+  @Override
+  public Order findOrder(UUID orderId) {
+    return read(orderId, (segment, slot) -> new OffHeapOrder(this, orderId, segment, slot));
+  }
+
+  @Override
+  public void addPancakes(PancakeRecipe pancake, UUID orderId, int count) {
+    if (count < 1) {
+      throw new OrderUpdateException("Invalid count for adding: " + count);
+    }
+    write(orderId, (segment, slot) -> segment.add(slot, pancake.getId(), count));
+  }
+
+  @Override
+  public void removePancakes(PancakeRecipe pancake, UUID orderId, int count) {
+    if (count < 1) {
+      throw new OrderUpdateException("Invalid count for removal: " + count);
+    }
+    write(orderId, (segment, slot) -> {
+      if (!segment.remove(slot, pancake.getId(), count)) {
+        LOGGER.warning("Pancake not found for removal: " + pancake);
+      }
+    });
+  }
+
+  @Override
+  public Order removeOrder(UUID orderId) {
+    long msb = orderId.getMostSignificantBits();
+    long lsb = orderId.getLeastSignificantBits();
+    int hash = hash(msb, lsb);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.lock.writeLock();
+    try {
+      int slot = segment.find(hash, msb, lsb);
+      if (slot < 0) {
+        return null;
+      }
+      Order order = new OffHeapOrder(this, orderId, segment, slot);
+      segment.delete(slot);
+      return order;
+    } finally {
+      segment.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean orderIsEmpty(UUID orderId) {
+    return getPancakesCount(orderId) == 0;
+  }
+
+  @Override
+  public int getPancakesCount(UUID orderId) {
+    long total = readLong(orderId, Segment::totalAt);
+    if (total == MISSING) {
+      throw new PancakesNotFoundForOrder("Pancakes not found for order: " + orderId);
+    }
+    return (int) total;
+  }
+
+  @Override
+  public Map<PancakeRecipe, Integer> getPancakes(UUID orderId) {
+    Map<PancakeRecipe, Integer> pancakes = read(orderId, (segment, slot) -> {
+      Map<PancakeRecipe, Integer> lines = new HashMap<>();
+      segment.forEachLine(slot, (recipeId, count) ->
+          lines.put(PancakeFactory.getPancakeRecipe(recipeId), count));
+      return lines;
+    });
+    if (pancakes == null) {
+      throw new PancakesNotFoundForOrder("Pancakes not found for order: " + orderId);
+    }
+    return Collections.unmodifiableMap(pancakes);
+  }
+
+  @Override
+  public List<String> getPancakesDescriptions(UUID orderId) {
+    Map<PancakeRecipe, Integer> pancakes = getPancakes(orderId);
+    List<String> descriptions = new ArrayList<>();
+    pancakes.forEach((pancake, count) -> {
+      String description = pancake.toString();
+      for (int i = 0; i < count; i++) {
+        descriptions.add(description);
+      }
+    });
+    return Collections.unmodifiableList(descriptions);
+  }
+
+  private void write(UUID orderId, SlotWriter writer) {
+    long msb = orderId.getMostSignificantBits();
+    long lsb = orderId.getLeastSignificantBits();
+    int hash = hash(msb, lsb);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.lock.writeLock();
+    try {
+      int slot = segment.find(hash, msb, lsb);
+      if (slot < 0) {
+        throw new PancakesNotFoundForOrder("Pancakes not found for order: " + orderId);
+      }
+      writer.write(segment, slot);
+    } finally {
+      segment.lock.unlockWrite(stamp);
+    }
+  }
+
+  private <T> T read(UUID orderId, SlotReader<T> reader) {
+    long msb = orderId.getMostSignificantBits();
+    long lsb = orderId.getLeastSignificantBits();
+    int hash = hash(msb, lsb);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.lock.tryOptimisticRead();
+    if (stamp != 0L) {
+      try {
+        int slot = segment.find(hash, msb, lsb);
+        T result = slot < 0 ? null : reader.read(segment, slot);
+        if (segment.lock.validate(stamp)) {
+          return result;
+        }
+      } catch (RuntimeException e) {
+        if (segment.lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = segment.lock.readLock();
+    try {
+      int slot = segment.find(hash, msb, lsb);
+      return slot < 0 ? null : reader.read(segment, slot);
+    } finally {
+      segment.lock.unlockRead(stamp);
+    }
+  }
+
+  private long readLong(UUID orderId, LongSlotReader reader) {
+    long msb = orderId.getMostSignificantBits();
+    long lsb = orderId.getLeastSignificantBits();
+    int hash = hash(msb, lsb);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.lock.tryOptimisticRead();
+    if (stamp != 0L) {
+      try {
+        int slot = segment.find(hash, msb, lsb);
+        long result = slot < 0 ? MISSING : reader.read(segment, slot);
+        if (segment.lock.validate(stamp)) {
+          return result;
+        }
+      } catch (RuntimeException e) {
+        if (segment.lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = segment.lock.readLock();
+    try {
+      int slot = segment.find(hash, msb, lsb);
+      return slot < 0 ? MISSING : reader.read(segment, slot);
+    } finally {
+      segment.lock.unlockRead(stamp);
+    }
+  }
+
+  // lifecycle writes only need the slot to stay in place, so they share the read lock and
+  // rely on atomic access to the word itself
+  private Boolean compareAndSetLifecycle(UUID orderId, int expected, int next) {
+    long msb = orderId.getMostSignificantBits();
+    long lsb = orderId.getLeastSignificantBits();
+    int hash = hash(msb, lsb);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.lock.readLock();
+    try {
+      int slot = segment.find(hash, msb, lsb);
+      return slot < 0 ? null : segment.compareAndSetLifecycle(slot, expected, next);
+    } finally {
+      segment.lock.unlockRead(stamp);
+    }
+  }
+
+  private void setTransitionNanos(UUID orderId, OrderStatus status, long nanos) {
+    long msb = orderId.getMostSignificantBits();
+    long lsb = orderId.getLeastSignificantBits();
+    int hash = hash(msb, lsb);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.lock.readLock();
+    try {
+      int slot = segment.find(hash, msb, lsb);
+      if (slot >= 0) {
+        segment.setNanos(slot, status, nanos);
+      }
+    } finally {
+      segment.lock.unlockRead(stamp);
+    }
+  }
+
+  public long getOffHeapBytes() {
+    long bytes = 0;
+    for (Segment segment : segments) {
+      long stamp = segment.lock.readLock();
+      try {
+        if (segment.slots != null) {
+          bytes += segment.slots.capacity() + segment.blocks.capacity();
+        }
+      } finally {
+        segment.lock.unlockRead(stamp);
+      }
+    }
+    return bytes;
+  }
+
+  // the buffers are dropped rather than freed eagerly: an optimistic reader may still be
+  // scanning them, so their memory goes back with the buffers' cleaners once unreachable
+  @Override
+  public void close() {
+    for (Segment segment : segments) {
+      long stamp = segment.lock.writeLock();
+      try {
+        segment.release();
+      } finally {
+        segment.lock.unlockWrite(stamp);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface SlotReader<T> {
+
+    T read(Segment segment, int slot);
+  }
+
+  @FunctionalInterface
+  private interface LongSlotReader {
+
+    long read(Segment segment, int slot);
+  }
+
+  @FunctionalInterface
+  private interface SlotWriter {
+
+    void write(Segment segment, int slot);
+  }
+
+  @FunctionalInterface
+  private interface LineVisitor {
+
+    void visit(int recipeId, int count);
+  }
+
+  // a view over a stored order: the lifecycle word and timestamps are read and written in the
+  // slot, and once the order is removed the view keeps the state it was built with or last
+  // moved to
+  private static final class OffHeapOrder extends Order {
+
+    private final OffHeapDataService store;
+
+    private OffHeapOrder(OffHeapDataService store, UUID id, Segment segment, int slot) {
+      super(id, store.names.name(segment.buildingAt(slot)),
+          store.names.name(segment.roomAt(slot)));
+      this.store = store;
+      for (OrderStatus status : STATUSES) {
+        super.setTransitionNanos(status, segment.nanosAt(slot, status));
+      }
+      mirror(statusOf(segment.lifecycleAt(slot)));
+    }
+
+    private static int initialLifecycle(Order order) {
+      return lifecycleOf(order.getStatus());
+    }
+
+    @Override
+    public long getTransitionNanos(OrderStatus status) {
+      long nanos = store.readLong(getId(), (segment, slot) -> segment.nanosAt(slot, status));
+      return nanos != MISSING ? nanos : super.getTransitionNanos(status);
+    }
+
+    @Override
+    public boolean transition(OrderStatus from, OrderStatus to) {
+      if (!super.transition(from, to)) {
+        return false;
+      }
+      mirror(to);
+      return true;
+    }
+
+    @Override
+    protected int getLifecycle() {
+      long lifecycle = store.readLong(getId(), Segment::lifecycleAt);
+      return lifecycle != MISSING ? (int) lifecycle : super.getLifecycle();
+    }
+
+    @Override
+    protected boolean compareAndSetLifecycle(int expected, int next) {
+      Boolean set = store.compareAndSetLifecycle(getId(), expected, next);
+      return set != null ? set : super.compareAndSetLifecycle(expected, next);
+    }
+
+    @Override
+    protected void setTransitionNanos(OrderStatus status, long nanos) {
+      store.setTransitionNanos(getId(), status, nanos);
+      super.setTransitionNanos(status, nanos);
+    }
+
+    private void mirror(OrderStatus status) {
+      int lifecycle = lifecycleOf(status);
+      int current = super.getLifecycle();
+      while (current != lifecycle && !super.compareAndSetLifecycle(current, lifecycle)) {
+        current = super.getLifecycle();
+      }
+    }
+  }
+
+  private static final class Names {
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile String[] names = new String[16];
+    private int size;
+
+    private int intern(String name) {
+      Integer id = ids.get(name);
+      if (id != null) {
+        return id;
+      }
+      lock.lock();
+      try {
+        id = ids.get(name);
+        if (id == null) {
+          String[] table = size == names.length ? Arrays.copyOf(names, size * 2) : names;
+          table[size] = name;
+          names = table;
+          id = size++;
+          ids.put(name, id);
+        }
+        return id;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private String name(int id) {
+      return names[id];
+    }
+  }
+
+  private static final class Segment {
+
+    private static final int EMPTY = 0;
+    private static final int LIVE = 1;
+    private static final int DELETED = 2;
+    private static final int NONE = -1;
+
+    private static final int MSB = 0;
+    private static final int LSB = 8;
+    private static final int STATE = 16;
+    private static final int TOTAL = 20;
+    private static final int LINES = 24;
+    private static final int FIRST_BLOCK = 28;
+    private static final int LIFECYCLE = 32;
+    private static final int BUILDING = 36;
+    private static final int ROOM = 40;
+    private static final int NANOS = 48;
+    private static final int INLINE = NANOS + STATUSES.length * Long.BYTES;
+    private static final int INLINE_LINES = 4;
+    private static final int SLOT_SIZE = INLINE + INLINE_LINES * Long.BYTES;
+
+    private static final int NEXT = 0;
+    private static final int BLOCK_LINES_OFFSET = 8;
+    private static final int BLOCK_LINES = 7;
+    private static final int BLOCK_SIZE = BLOCK_LINES_OFFSET + BLOCK_LINES * Long.BYTES;
+    private static final int INITIAL_BLOCKS = 16;
+    private static final int MAX_BLOCKS_BYTES = Integer.MAX_VALUE / BLOCK_SIZE * BLOCK_SIZE;
+
+    private final StampedLock lock = new StampedLock();
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+    private int deleted;
+    private ByteBuffer blocks = ByteBuffer.allocateDirect(INITIAL_BLOCKS * BLOCK_SIZE);
+    private int usedBlocks;
+    private int freeBlock = NONE;
+
+    private Segment(int capacity) {
+      allocate(capacity);
+    }
+
+    private static long tableBytes(int capacity) {
+      return (long) capacity * SLOT_SIZE + Long.BYTES;
+    }
+
+    private void allocate(int capacity) {
+      slots = ByteBuffer.allocateDirect((int) tableBytes(capacity)).alignedSlice(Long.BYTES);
+      mask = capacity - 1;
+    }
+
+    private void release() {
+      slots = null;
+      blocks = null;
+      mask = 0;
+      size = 0;
+      deleted = 0;
+      usedBlocks = 0;
+      freeBlock = NONE;
+    }
+
+    private int find(int hash, long msb, long lsb) {
+      ByteBuffer table = slots;
+      if (table == null) {
+        return NONE;
+      }
+      int tableMask = mask;
+      for (int i = 0, index = hash & tableMask; i <= tableMask;
+          i++, index = (index + 1) & tableMask) {
+        int base = index * SLOT_SIZE;
+        int state = table.getInt(base + STATE);
+        if (state == EMPTY) {
+          return NONE;
+        }
+        if (state == LIVE && table.getLong(base + MSB) == msb
+            && table.getLong(base + LSB) == lsb) {
+          return index;
+        }
+      }
+      return NONE;
+    }
+
+    private int insert(int hash, long msb, long lsb) {
+      if (slots == null) {
+        throw new IllegalStateException("Data service is closed");
+      }
+      int existing = find(hash, msb, lsb);
+      if (existing >= 0) {
+        freeBlocks(existing);
+        clearLines(existing);
+        return existing;
+      }
+      if ((size + deleted + 1) * 4L > (mask + 1) * 3L) {
+        int capacity = size * 2L >= mask + 1 ? (mask + 1) * 2 : mask + 1;
+        if (tableBytes(capacity) > Integer.MAX_VALUE) {
+          throw new IllegalStateException("Segment is full: " + size + " orders");
+        }
+        rehash(capacity);
+      }
+      int index = hash & mask;
+      while (slots.getInt(index * SLOT_SIZE + STATE) == LIVE) {
+        index = (index + 1) & mask;
+      }
+      int base = index * SLOT_SIZE;
+      if (slots.getInt(base + STATE) == DELETED) {
+        deleted--;
+      }
+      slots.putLong(base + MSB, msb).putLong(base + LSB, lsb).putInt(base + STATE, LIVE);
+      clearLines(index);
+      size++;
+      return index;
+    }
+
+    private void writeOrder(int slot, int building, int room, int lifecycle, long[] nanos) {
+      int base = slot * SLOT_SIZE;
+      slots.putInt(base + BUILDING, building).putInt(base + ROOM, room);
+      for (OrderStatus status : STATUSES) {
+        setNanos(slot, status, nanos[status.ordinal()]);
+      }
+      INTS.setVolatile(slots, base + LIFECYCLE, lifecycle);
+    }
+
+    private void rehash(int capacity) {
+      ByteBuffer oldSlots = slots;
+      int oldCapacity = mask + 1;
+      allocate(capacity);
+      for (int i = 0; i < oldCapacity; i++) {
+        int oldBase = i * SLOT_SIZE;
+        if (oldSlots.getInt(oldBase + STATE) != LIVE) {
+          continue;
+        }
+        long msb = oldSlots.getLong(oldBase + MSB);
+        long lsb = oldSlots.getLong(oldBase + LSB);
+        int index = hash(msb, lsb) & mask;
+        while (slots.getInt(index * SLOT_SIZE + STATE) != EMPTY) {
+          index = (index + 1) & mask;
+        }
+        slots.put(index * SLOT_SIZE, oldSlots, oldBase, SLOT_SIZE);
+      }
+      deleted = 0;
+    }
+
+    private void delete(int slot) {
+      freeBlocks(slot);
+      slots.putInt(slot * SLOT_SIZE + STATE, DELETED);
+      size--;
+      deleted++;
+    }
+
+    private long totalAt(int slot) {
+      return slots.getInt(slot * SLOT_SIZE + TOTAL);
+    }
+
+    private int buildingAt(int slot) {
+      return slots.getInt(slot * SLOT_SIZE + BUILDING);
+    }
+
+    private int roomAt(int slot) {
+      return slots.getInt(slot * SLOT_SIZE + ROOM);
+    }
+
+    private int lifecycleAt(int slot) {
+      return (int) INTS.getVolatile(slots, slot * SLOT_SIZE + LIFECYCLE);
+    }
+
+    private boolean compareAndSetLifecycle(int slot, int expected, int next) {
+      return INTS.compareAndSet(slots, slot * SLOT_SIZE + LIFECYCLE, expected, next);
+    }
+
+    private long nanosAt(int slot, OrderStatus status) {
+      return slots.getLong(slot * SLOT_SIZE + NANOS + status.ordinal() * Long.BYTES);
+    }
+
+    private void setNanos(int slot, OrderStatus status, long nanos) {
+      slots.putLong(slot * SLOT_SIZE + NANOS + status.ordinal() * Long.BYTES, nanos);
+    }
+
+    private void clearLines(int slot) {
+      int base = slot * SLOT_SIZE;
+      slots.putInt(base + TOTAL, 0).putInt(base + LINES, 0).putInt(base + FIRST_BLOCK, NONE);
+    }
+
+    private void add(int slot, int recipeId, int count) {
+      int base = slot * SLOT_SIZE;
+      int total;
+      try {
+        total = Math.addExact(slots.getInt(base + TOTAL), count);
+      } catch (ArithmeticException e) {
+        throw new OrderUpdateException("Too many pancakes for adding: " + count);
+      }
+      int lines = slots.getInt(base + LINES);
+      for (int line = 0; line < lines; line++) {
+        ByteBuffer buffer = lineBuffer(line);
+        int position = linePosition(slot, line);
+        if (buffer.getInt(position) == recipeId) {
+          buffer.putInt(position + Integer.BYTES, buffer.getInt(position + Integer.BYTES) + count);
+          slots.putInt(base + TOTAL, total);
+          return;
+        }
+      }
+      if (lines >= INLINE_LINES && (lines - INLINE_LINES) % BLOCK_LINES == 0) {
+        appendBlock(slot, lines);
+      }
+      int position = linePosition(slot, lines);
+      lineBuffer(lines).putInt(position, recipeId).putInt(position + Integer.BYTES, count);
+      slots.putInt(base + LINES, lines + 1).putInt(base + TOTAL, total);
+    }
+
+    private boolean remove(int slot, int recipeId, int count) {
+      int base = slot * SLOT_SIZE;
+      int lines = slots.getInt(base + LINES);
+      for (int line = 0; line < lines; line++) {
+        ByteBuffer buffer = lineBuffer(line);
+        int position = linePosition(slot, line);
+        if (buffer.getInt(position) != recipeId) {
+          continue;
+        }
+        int current = buffer.getInt(position + Integer.BYTES);
+        int removed = Math.min(current, count);
+        slots.putInt(base + TOTAL, slots.getInt(base + TOTAL) - removed);
+        if (removed < current) {
+          buffer.putInt(position + Integer.BYTES, current - removed);
+          return true;
+        }
+        int last = lines - 1;
+        int lastPosition = linePosition(slot, last);
+        ByteBuffer lastBuffer = lineBuffer(last);
+        buffer.putInt(position, lastBuffer.getInt(lastPosition))
+            .putInt(position + Integer.BYTES, lastBuffer.getInt(lastPosition + Integer.BYTES));
+        slots.putInt(base + LINES, last);
+        if (last >= INLINE_LINES && (last - INLINE_LINES) % BLOCK_LINES == 0) {
+          releaseLastBlock(slot, last);
+        }
+        return true;
+      }
+      return false;
+    }
+
+    private void forEachLine(int slot, LineVisitor visitor) {
+      int lines = slots.getInt(slot * SLOT_SIZE + LINES);
+      for (int line = 0; line < lines; line++) {
+        int position = linePosition(slot, line);
+        ByteBuffer buffer = lineBuffer(line);
+        visitor.visit(buffer.getInt(position), buffer.getInt(position + Integer.BYTES));
+      }
+    }
+
+    private ByteBuffer lineBuffer(int line) {
+      return line < INLINE_LINES ? slots : blocks;
+    }
+
+    private int linePosition(int slot, int line) {
+      if (line < INLINE_LINES) {
+        return slot * SLOT_SIZE + INLINE + line * Long.BYTES;
+      }
+      int block = slots.getInt(slot * SLOT_SIZE + FIRST_BLOCK);
+      for (int hops = (line - INLINE_LINES) / BLOCK_LINES; hops > 0; hops--) {
+        block = blocks.getInt(block * BLOCK_SIZE + NEXT);
+      }
+      return block * BLOCK_SIZE + BLOCK_LINES_OFFSET
+          + (line - INLINE_LINES) % BLOCK_LINES * Long.BYTES;
+    }
+
+    private void appendBlock(int slot, int lines) {
+      int block = allocateBlock();
+      blocks.putInt(block * BLOCK_SIZE + NEXT, NONE);
+      if (lines == INLINE_LINES) {
+        slots.putInt(slot * SLOT_SIZE + FIRST_BLOCK, block);
+      } else {
+        blocks.putInt(blockAt(slot, (lines - INLINE_LINES) / BLOCK_LINES - 1) * BLOCK_SIZE
+            + NEXT, block);
+      }
+    }
+
+    private void releaseLastBlock(int slot, int lines) {
+      int index = (lines - INLINE_LINES) / BLOCK_LINES;
+      int block = blockAt(slot, index);
+      if (index == 0) {
+        slots.putInt(slot * SLOT_SIZE + FIRST_BLOCK, NONE);
+      } else {
+        blocks.putInt(blockAt(slot, index - 1) * BLOCK_SIZE + NEXT, NONE);
+      }
+      releaseBlock(block);
+    }
+
+    private int blockAt(int slot, int index) {
+      int block = slots.getInt(slot * SLOT_SIZE + FIRST_BLOCK);
+      for (int i = 0; i < index; i++) {
+        block = blocks.getInt(block * BLOCK_SIZE + NEXT);
+      }
+      return block;
+    }
+
+    private void freeBlocks(int slot) {
+      int block = slots.getInt(slot * SLOT_SIZE + FIRST_BLOCK);
+      if (slots.getInt(slot * SLOT_SIZE + LINES) <= INLINE_LINES) {
+        return;
+      }
+      while (block != NONE) {
+        int next = blocks.getInt(block * BLOCK_SIZE + NEXT);
+        releaseBlock(block);
+        block = next;
+      }
+    }
+
+    private int allocateBlock() {
+      if (freeBlock != NONE) {
+        int block = freeBlock;
+        freeBlock = blocks.getInt(block * BLOCK_SIZE + NEXT);
+        return block;
+      }
+      if ((usedBlocks + 1L) * BLOCK_SIZE > blocks.capacity()) {
+        int capacity = (int) Math.min(blocks.capacity() * 2L, MAX_BLOCKS_BYTES);
+        if ((usedBlocks + 1L) * BLOCK_SIZE > capacity) {
+          throw new IllegalStateException("Segment is full: " + usedBlocks + " blocks");
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        grown.put(0, blocks, 0, usedBlocks * BLOCK_SIZE);
+        blocks = grown;
+      }
+      return usedBlocks++;
+    }
+
+    private void releaseBlock(int block) {
+      blocks.putInt(block * BLOCK_SIZE + NEXT, freeBlock);
+      freeBlock = block;
+    }
+  }
+
+  public static class Builder {
+
+    private int segments = DEFAULT_SEGMENTS;
+    private int segmentCapacity = DEFAULT_SEGMENT_CAPACITY;
+
+    public Builder segments(int segments) {
+      this.segments = segments;
+      return this;
+    }
+
+    public Builder segmentCapacity(int segmentCapacity) {
+      this.segmentCapacity = segmentCapacity;
+      return this;
+    }
+
+    public OffHeapDataService build() {
+      return new OffHeapDataService(this);
+    }
+  }
+}
@@ -2,17 +2,70 @@ package org.sweetieslab.service;
 
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import org.sweetieslab.model.order.Order;
 
 public interface OperationsService {
 
+  long TIMEOUT = 15L;
+
   void completeOrder(Order order);
 
-  Order prepareOrder();
+  default void setShedOrderHandler(Consumer<Order> shedOrderHandler) {
+  }
+
+  default Backpressure getBackpressure() {
+    return Backpressure.NONE;
+  }
+
+  default Order prepareOrder() {
+    return prepareOrder(order -> {
+    });
+  }
+
+  default Order prepareOrder(PreparationListener listener) {
+    return prepareOrder(listener, TIMEOUT, TimeUnit.SECONDS);
+  }
+
+  Order prepareOrder(PreparationListener listener, long timeout, TimeUnit unit);
+
+  default Order prepareOrder(int worker, PreparationListener listener, long timeout,
+      TimeUnit unit) {
+    return prepareOrder(listener, timeout, unit);
+  }
+
+  default Order deliverOrder() {
+    return deliverOrder(TIMEOUT, TimeUnit.SECONDS);
+  }
 
-  Order deliverOrder();
+  Order deliverOrder(long timeout, TimeUnit unit);
 
   Set<UUID> listCompletedOrders();
 
   Set<UUID> listPreparedOrders();
+
+  default boolean isCompletedOrder(UUID orderId) {
+    return listCompletedOrders().contains(orderId);
+  }
+
+  default boolean isPreparedOrder(UUID orderId) {
+    return listPreparedOrders().contains(orderId);
+  }
+
+  default int countCompletedOrders() {
+    return listCompletedOrders().size();
+  }
+
+  default int countPreparedOrders() {
+    return listPreparedOrders().size();
+  }
+
+  default OrderPage pageCompletedOrders(long cursor, int limit) {
+    return OrderPage.of(listCompletedOrders(), cursor, limit);
+  }
+
+  default OrderPage pagePreparedOrders(long cursor, int limit) {
+    return OrderPage.of(listPreparedOrders(), cursor, limit);
+  }
 }
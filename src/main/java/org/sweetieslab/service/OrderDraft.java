@@ -0,0 +1,64 @@
+package org.sweetieslab.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderUpdateException;
+
+public class OrderDraft {
+
+  private static final Logger LOGGER = Logger.getLogger(OrderDraft.class.getName());
+
+  private final Address address;
+  private final Map<PancakeRecipe, Integer> pancakes = new LinkedHashMap<>();
+
+  public OrderDraft(Address address) {
+    this.address = address;
+  }
+
+  public OrderDraft addPancakes(PancakeRecipe pancake, int count) {
+    if (count < 1) {
+      throw new OrderUpdateException("Invalid count for adding: " + count);
+    }
+    try {
+      pancakes.merge(pancake, count, Math::addExact);
+    } catch (ArithmeticException e) {
+      throw new OrderUpdateException("Too many pancakes for adding: " + count);
+    }
+    return this;
+  }
+
+  public OrderDraft removePancakes(PancakeRecipe pancake, int count) {
+    if (count < 1) {
+      throw new OrderUpdateException("Invalid count for removal: " + count);
+    }
+    Integer current = pancakes.get(pancake);
+    if (current == null) {
+      LOGGER.warning("Pancake not found for removal: " + pancake);
+    } else if (current > count) {
+      pancakes.put(pancake, current - count);
+    } else {
+      pancakes.remove(pancake);
+    }
+    return this;
+  }
+
+  public Address getAddress() {
+    return address;
+  }
+
+  public Map<PancakeRecipe, Integer> getPancakes() {
+    return Collections.unmodifiableMap(pancakes);
+  }
+
+  public int getPancakesCount() {
+    return pancakes.values().stream().mapToInt(Integer::intValue).sum();
+  }
+
+  public boolean isEmpty() {
+    return pancakes.isEmpty();
+  }
+}
@@ -0,0 +1,36 @@
+package org.sweetieslab.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+public record OrderPage(List<UUID> orders, long nextCursor) {
+
+  public static final long FIRST = 0L;
+  public static final long END = -1L;
+
+  public boolean hasNext() {
+    return nextCursor != END;
+  }
+
+  static OrderPage of(Collection<UUID> orders, long cursor, int limit) {
+    checkRequest(cursor, limit);
+    List<UUID> sorted = new ArrayList<>(orders);
+    Collections.sort(sorted);
+    int from = (int) Math.min(cursor, sorted.size());
+    int to = (int) Math.min((long) from + limit, sorted.size());
+    return new OrderPage(List.copyOf(sorted.subList(from, to)),
+        to < sorted.size() ? to : END);
+  }
+
+  static void checkRequest(long cursor, int limit) {
+    if (cursor < 0) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+    if (limit < 1) {
+      throw new IllegalArgumentException("Invalid page limit: " + limit);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package org.sweetieslab.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderUpdateException;
+import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+
+class OrderRecord {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private final Order order;
+  private final ReentrantLock lock = new ReentrantLock();
+  private boolean removed;
+  private int[] recipeIds = new int[INITIAL_CAPACITY];
+  private int[] counts = new int[INITIAL_CAPACITY];
+  private int size;
+  private volatile int total;
+
+  OrderRecord(Order order) {
+    this.order = order;
+  }
+
+  Order getOrder() {
+    return order;
+  }
+
+  void markRemoved() {
+    lock.lock();
+    try {
+      removed = true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void checkNotRemoved() {
+    if (removed) {
+      throw new PancakesNotFoundForOrder("Pancakes not found for order: " + order.getId());
+    }
+  }
+
+  void add(int recipeId, int count) {
+    lock.lock();
+    try {
+      checkNotRemoved();
+      int index = indexOf(recipeId);
+      if (index < 0) {
+        if (size == recipeIds.length) {
+          recipeIds = Arrays.copyOf(recipeIds, size * 2);
+          counts = Arrays.copyOf(counts, size * 2);
+        }
+        index = size++;
+        recipeIds[index] = recipeId;
+      }
+      try {
+        total = Math.addExact(total, count);
+      } catch (ArithmeticException e) {
+        throw new OrderUpdateException("Too many pancakes for adding: " + count);
+      }
+      counts[index] += count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  boolean remove(int recipeId, int count) {
+    lock.lock();
+    try {
+      checkNotRemoved();
+      int index = indexOf(recipeId);
+      if (index < 0) {
+        return false;
+      }
+      int removed = Math.min(count, counts[index]);
+      counts[index] -= removed;
+      total -= removed;
+      if (counts[index] == 0) {
+        size--;
+        recipeIds[index] = recipeIds[size];
+        counts[index] = counts[size];
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int indexOf(int recipeId) {
+    for (int i = 0; i < size; i++) {
+      if (recipeIds[i] == recipeId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  int total() {
+    return total;
+  }
+
+  boolean isEmpty() {
+    return total == 0;
+  }
+
+  Map<PancakeRecipe, Integer> pancakes() {
+    lock.lock();
+    try {
+      Map<PancakeRecipe, Integer> pancakes = new HashMap<>(size * 2);
+      for (int i = 0; i < size; i++) {
+        pancakes.put(PancakeFactory.getPancakeRecipe(recipeIds[i]), counts[i]);
+      }
+      return Collections.unmodifiableMap(pancakes);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  List<String> descriptions() {
+    lock.lock();
+    try {
+      List<String> descriptions = new ArrayList<>(total);
+      for (int i = 0; i < size; i++) {
+        String description = PancakeFactory.getPancakeRecipe(recipeIds[i]).toString();
+        for (int j = 0; j < counts[i]; j++) {
+          descriptions.add(description);
+        }
+      }
+      return Collections.unmodifiableList(descriptions);
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package org.sweetieslab.service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.sweetieslab.model.order.Order;
+
+class OrderRing {
+
+  private final int mask;
+  private final Order[] slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong producerSequence = new AtomicLong();
+  private final AtomicLong consumerSequence = new AtomicLong();
+
+  OrderRing(int capacity) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.mask = capacity - 1;
+    this.slots = new Order[capacity];
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  boolean offer(Order order) {
+    long position = producerSequence.get();
+    while (true) {
+      int slot = (int) position & mask;
+      long available = sequences.get(slot) - position;
+      if (available == 0) {
+        if (producerSequence.compareAndSet(position, position + 1)) {
+          slots[slot] = order;
+          sequences.set(slot, position + 1);
+          return true;
+        }
+        position = producerSequence.get();
+      } else if (available < 0) {
+        return false;
+      } else {
+        position = producerSequence.get();
+      }
+    }
+  }
+
+  Order poll() {
+    long position = consumerSequence.get();
+    while (true) {
+      int slot = (int) position & mask;
+      long available = sequences.get(slot) - (position + 1);
+      if (available == 0) {
+        if (consumerSequence.compareAndSet(position, position + 1)) {
+          Order order = slots[slot];
+          slots[slot] = null;
+          sequences.set(slot, position + mask + 1);
+          return order;
+        }
+        position = consumerSequence.get();
+      } else if (available < 0) {
+        return null;
+      } else {
+        position = consumerSequence.get();
+      }
+    }
+  }
+
+  int size() {
+    return (int) Math.max(0, producerSequence.get() - consumerSequence.get());
+  }
+
+  Set<UUID> listOrders() {
+    Set<UUID> orders = new HashSet<>();
+    long end = producerSequence.get();
+    for (long position = consumerSequence.get(); position < end; position++) {
+      int slot = (int) position & mask;
+      if (sequences.get(slot) == position + 1) {
+        Order order = slots[slot];
+        if (order != null && sequences.get(slot) == position + 1) {
+          orders.add(order.getId());
+        }
+      }
+    }
+    return orders;
+  }
+}
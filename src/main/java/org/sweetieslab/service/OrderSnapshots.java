@@ -0,0 +1,251 @@
+package org.sweetieslab.service;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderNotFoundException;
+import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+import org.sweetieslab.service.exception.PersistenceException;
+import org.sweetieslab.service.wal.OrderLogCodec;
+
+public class OrderSnapshots {
+
+  public static final int MAGIC = 0x53574c53;
+  public static final int VERSION = 2;
+  public static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+  public static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+  public static final int BUFFER_SIZE = 1 << 20;
+  public static final int PAGE_SIZE = 1024;
+
+  private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+  private final ConcurrentMapDataService dataService;
+  private final CollectionsOperationsService operationsService;
+
+  public OrderSnapshots(ConcurrentMapDataService dataService,
+      CollectionsOperationsService operationsService) {
+    this.dataService = dataService;
+    this.operationsService = operationsService;
+  }
+
+  public long write(Path file) {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      SnapshotWriter writer = new SnapshotWriter(channel);
+      writer.writeStage(true);
+      writer.writeStage(false);
+      dataService.forEachOrder((order, pancakes) -> {
+        if (!writer.written.contains(order.getId())) {
+          writer.write(order, pancakes);
+        }
+      });
+      writer.finish();
+      channel.force(true);
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      return writer.count;
+    } catch (IOException e) {
+      throw new PersistenceException("Cannot write snapshot " + file, e);
+    }
+  }
+
+  public long load(Path file) {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new PersistenceException("Snapshot too large to map: " + file);
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      throw new PersistenceException("Cannot read snapshot " + file, e);
+    }
+    if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC
+        || buffer.getInt() != VERSION) {
+      throw new PersistenceException("Not a snapshot: " + file);
+    }
+    List<Entry> entries = read(buffer, file);
+    for (Entry entry : entries) {
+      Order order = entry.order();
+      dataService.addOrder(order, entry.pancakes());
+      switch (entry.status()) {
+        // an order that was mid-cook when the snapshot was taken goes back to the completed
+        // queue and is cooked again
+        case COMPLETED, PREPARING -> {
+          order.transition(OrderStatus.OPEN, OrderStatus.COMPLETED);
+          operationsService.restoreCompleted(order);
+        }
+        case PREPARED -> {
+          order.transition(OrderStatus.OPEN, OrderStatus.COMPLETED);
+          order.transition(OrderStatus.COMPLETED, OrderStatus.PREPARING);
+          order.transition(OrderStatus.PREPARING, OrderStatus.PREPARED);
+          operationsService.restorePrepared(order);
+        }
+        default -> {
+        }
+      }
+    }
+    return entries.size();
+  }
+
+  private List<Entry> read(ByteBuffer buffer, Path file) {
+    long count = buffer.getLong();
+    if (count < 0 || count > buffer.remaining() / RECORD_HEADER_SIZE) {
+      throw new PersistenceException("Corrupt snapshot record count " + count + ": " + file);
+    }
+    List<Entry> entries = new ArrayList<>((int) count);
+    Set<UUID> orderIds = new HashSet<>();
+    CRC32C crc = new CRC32C();
+    for (long i = 0; i < count; i++) {
+      if (buffer.remaining() < RECORD_HEADER_SIZE) {
+        throw new PersistenceException("Truncated snapshot at record " + i + ": " + file);
+      }
+      int length = buffer.getInt();
+      int checksum = buffer.getInt();
+      if (length < 1 || length > buffer.remaining()) {
+        throw new PersistenceException("Corrupt snapshot record " + i + " length: " + file);
+      }
+      ByteBuffer payload = buffer.slice(buffer.position(), length);
+      buffer.position(buffer.position() + length);
+      crc.reset();
+      crc.update(payload.duplicate());
+      if ((int) crc.getValue() != checksum) {
+        throw new PersistenceException("Corrupt snapshot record " + i + " checksum: " + file);
+      }
+      Entry entry = decode(payload, i, file);
+      if (!orderIds.add(entry.order().getId())
+          || dataService.findOrder(entry.order().getId()) != null) {
+        throw new PersistenceException("Duplicate order " + entry.order().getId()
+            + " in snapshot: " + file);
+      }
+      entries.add(entry);
+    }
+    if (buffer.hasRemaining()) {
+      throw new PersistenceException("Trailing bytes after snapshot records: " + file);
+    }
+    return entries;
+  }
+
+  private static Entry decode(ByteBuffer payload, long index, Path file) {
+    try {
+      int ordinal = payload.get();
+      if (ordinal < 0 || ordinal > OrderStatus.PREPARED.ordinal()) {
+        throw new PersistenceException("Invalid status " + ordinal + " in snapshot record "
+            + index + ": " + file);
+      }
+      Order order = OrderLogCodec.readOrder(payload);
+      Map<PancakeRecipe, Integer> pancakes = OrderLogCodec.readPancakes(payload);
+      if (payload.hasRemaining()) {
+        throw new PersistenceException("Corrupt snapshot record " + index + ": " + file);
+      }
+      return new Entry(STATUSES[ordinal], order, pancakes);
+    } catch (PersistenceException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new PersistenceException("Corrupt snapshot record " + index + ": " + file, e);
+    }
+  }
+
+  private record Entry(OrderStatus status, Order order, Map<PancakeRecipe, Integer> pancakes) {
+  }
+
+  private class SnapshotWriter {
+
+    private final FileChannel channel;
+    private final Set<UUID> written = new HashSet<>();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32C checksum = new CRC32C();
+    private long count;
+
+    private SnapshotWriter(FileChannel channel) throws IOException {
+      this.channel = channel;
+      channel.position(HEADER_SIZE);
+    }
+
+    private void writeStage(boolean prepared) {
+      OrderPage page = new OrderPage(List.of(), OrderPage.FIRST);
+      do {
+        page = prepared ? operationsService.pagePreparedOrders(page.nextCursor(), PAGE_SIZE)
+            : operationsService.pageCompletedOrders(page.nextCursor(), PAGE_SIZE);
+        for (UUID orderId : page.orders()) {
+          try {
+            Order order = dataService.getOrder(orderId);
+            if (write(order, dataService.getPancakes(orderId))) {
+              written.add(orderId);
+            }
+          } catch (OrderNotFoundException | PancakesNotFoundForOrder e) {
+            // delivered or cancelled while paging
+          }
+        }
+      } while (page.hasNext());
+    }
+
+    private boolean write(Order order, Map<PancakeRecipe, Integer> livePancakes) {
+      // pancakes only change while an order is open, so the status read before the copy
+      // matches the copied pancakes
+      OrderStatus status = order.getStatus();
+      if (status == OrderStatus.OUT_FOR_DELIVERY || status == OrderStatus.CANCELLED) {
+        return false;
+      }
+      Map<PancakeRecipe, Integer> pancakes = Map.copyOf(livePancakes);
+      int start = buffer.position();
+      try {
+        encode(status, order, pancakes);
+      } catch (BufferOverflowException e) {
+        buffer.position(start);
+        drain();
+        encode(status, order, pancakes);
+      }
+      count++;
+      return true;
+    }
+
+    private void encode(OrderStatus status, Order order, Map<PancakeRecipe, Integer> pancakes) {
+      int start = buffer.position();
+      buffer.putLong(0L);
+      buffer.put((byte) status.ordinal());
+      OrderLogCodec.writeOrder(buffer, order, pancakes);
+      int length = buffer.position() - start - RECORD_HEADER_SIZE;
+      checksum.reset();
+      checksum.update(buffer.slice(start + RECORD_HEADER_SIZE, length));
+      buffer.putInt(start, length).putInt(start + Integer.BYTES, (int) checksum.getValue());
+    }
+
+    private void drain() {
+      buffer.flip();
+      try {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      } catch (IOException e) {
+        throw new PersistenceException("Cannot write snapshot: " + e.getMessage(), e);
+      }
+      buffer.clear();
+    }
+
+    private void finish() throws IOException {
+      drain();
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+          .putInt(MAGIC).putInt(VERSION).putLong(count).flip();
+      while (header.hasRemaining()) {
+        channel.write(header, HEADER_SIZE - header.remaining());
+      }
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package org.sweetieslab.service;
+
+public enum OverloadPolicy {
+  BLOCK,
+  REJECT,
+  SHED_OLDEST
+}
@@ -0,0 +1,15 @@
+package org.sweetieslab.service;
+
+import org.sweetieslab.model.order.Order;
+
+@FunctionalInterface
+public interface PreparationListener {
+
+  default void preparationStarted(Order order) {
+  }
+
+  void orderPrepared(Order order);
+
+  default void orderQueued(Order order) {
+  }
+}
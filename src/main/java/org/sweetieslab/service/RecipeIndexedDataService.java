@@ -0,0 +1,112 @@
+package org.sweetieslab.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderNotFoundException;
+import org.sweetieslab.service.exception.OrderUpdateException;
+import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+
+public class RecipeIndexedDataService implements DataService {
+
+  private static final Logger LOGGER = Logger.getLogger(RecipeIndexedDataService.class.getName());
+
+  private final ConcurrentMap<UUID, OrderRecord> records = new ConcurrentHashMap<>();
+
+  @Override
+  public Order addOrder(Order order) {
+    return addOrder(order, Map.of());
+  }
+
+  @Override
+  public Order addOrder(Order order, Map<PancakeRecipe, Integer> pancakes) {
+    OrderRecord record = new OrderRecord(order);
+    pancakes.forEach((pancake, count) -> {
+      if (count < 1) {
+        throw new OrderUpdateException("Invalid count for adding: " + count);
+      }
+      record.add(pancake.getId(), count);
+    });
+    OrderRecord replaced = records.put(order.getId(), record);
+    if (replaced != null) {
+      replaced.markRemoved();
+    }
+    return order;
+  }
+
+  @Override
+  public Order getOrder(UUID orderId) {
+    Order order = findOrder(orderId);
+    if (order == null) {
+      throw new OrderNotFoundException("Order not found: " + orderId);
+    }
+    return order;
+  }
+
+  @Override
+  public Order findOrder(UUID orderId) {
+    OrderRecord record = records.get(orderId);
+    return record != null ? record.getOrder() : null;
+  }
+
+  @Override
+  public void addPancakes(PancakeRecipe pancake, UUID orderId, int count) {
+    if (count < 1) {
+      throw new OrderUpdateException("Invalid count for adding: " + count);
+    }
+    getOrderPancakes(orderId).add(pancake.getId(), count);
+  }
+
+  @Override
+  public void removePancakes(PancakeRecipe pancake, UUID orderId, int count) {
+    if (count < 1) {
+      throw new OrderUpdateException("Invalid count for removal: " + count);
+    }
+    if (!getOrderPancakes(orderId).remove(pancake.getId(), count)) {
+      LOGGER.warning("Pancake not found for removal: " + pancake);
+    }
+  }
+
+  private OrderRecord getOrderPancakes(UUID orderId) {
+    OrderRecord record = records.get(orderId);
+    if (record == null) {
+      throw new PancakesNotFoundForOrder("Pancakes not found for order: " + orderId);
+    }
+    return record;
+  }
+
+  @Override
+  public boolean orderIsEmpty(UUID orderId) {
+    return getOrderPancakes(orderId).isEmpty();
+  }
+
+  @Override
+  public int getPancakesCount(UUID orderId) {
+    return getOrderPancakes(orderId).total();
+  }
+
+  @Override
+  public Map<PancakeRecipe, Integer> getPancakes(UUID orderId) {
+    return getOrderPancakes(orderId).pancakes();
+  }
+
+  @Override
+  public List<String> getPancakesDescriptions(UUID orderId) {
+    return getOrderPancakes(orderId).descriptions();
+  }
+
+  @Override
+  public Order removeOrder(UUID orderId) {
+    OrderRecord record = records.remove(orderId);
+    if (record == null) {
+      return null;
+    }
+    record.markRemoved();
+    return record.getOrder();
+  }
+}
@@ -0,0 +1,98 @@
+package org.sweetieslab.service;
+
+import static org.sweetieslab.service.CollectionsOperationsService.COOK_TIME_MILLIS;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.service.exception.OperationsServiceException;
+
+public class RingBufferOperationsService implements OperationsService {
+
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private final OrderRing completed;
+  private final OrderRing prepared;
+  private final long cookTimeMillis;
+  private final WaitStrategy waitStrategy;
+
+  public RingBufferOperationsService() {
+    this(DEFAULT_CAPACITY, COOK_TIME_MILLIS, WaitStrategy.PARK);
+  }
+
+  public RingBufferOperationsService(int capacity, long cookTimeMillis,
+      WaitStrategy waitStrategy) {
+    if (cookTimeMillis < 0) {
+      throw new IllegalArgumentException("Invalid cook time: " + cookTimeMillis);
+    }
+    this.completed = new OrderRing(capacity);
+    this.prepared = new OrderRing(capacity);
+    this.cookTimeMillis = cookTimeMillis;
+    this.waitStrategy = waitStrategy;
+  }
+
+  @Override
+  public void completeOrder(Order order) {
+    put(completed, order, "Interrupted while adding order to completed queue");
+  }
+
+  @Override
+  public Order prepareOrder(PreparationListener listener, long timeout, TimeUnit unit) {
+    Order order = poll(completed, unit.toNanos(timeout),
+        "Interrupted while taking order from completed queue");
+    if (order == null) {
+      return null;
+    }
+    listener.preparationStarted(order);
+    StageQueues.cook(cookTimeMillis);
+    listener.orderPrepared(order);
+    put(prepared, order, "Interrupted while adding order to prepared queue");
+    listener.orderQueued(order);
+    return order;
+  }
+
+  @Override
+  public Order deliverOrder(long timeout, TimeUnit unit) {
+    return poll(prepared, unit.toNanos(timeout),
+        "Interrupted while taking order from prepared queue");
+  }
+
+  @Override
+  public Set<UUID> listCompletedOrders() {
+    return completed.listOrders();
+  }
+
+  @Override
+  public Set<UUID> listPreparedOrders() {
+    return prepared.listOrders();
+  }
+
+  private void put(OrderRing ring, Order order, String interruptedMessage) {
+    for (int attempt = 0; !ring.offer(order); attempt++) {
+      checkInterrupted(interruptedMessage);
+      waitStrategy.idle(attempt);
+    }
+  }
+
+  private Order poll(OrderRing ring, long timeoutNanos, String interruptedMessage) {
+    long deadline = System.nanoTime() + timeoutNanos;
+    for (int attempt = 0; ; attempt++) {
+      Order order = ring.poll();
+      if (order != null) {
+        return order;
+      }
+      checkInterrupted(interruptedMessage);
+      if (System.nanoTime() - deadline >= 0) {
+        return null;
+      }
+      waitStrategy.idle(attempt);
+    }
+  }
+
+  private static void checkInterrupted(String message) {
+    if (Thread.currentThread().isInterrupted()) {
+      throw new OperationsServiceException(message);
+    }
+  }
+}
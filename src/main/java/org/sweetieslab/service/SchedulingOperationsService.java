@@ -0,0 +1,167 @@
+package org.sweetieslab.service;
+
+import static org.sweetieslab.service.CollectionsOperationsService.COOK_TIME_MILLIS;
+
+import java.util.Comparator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.service.metrics.LatencyHistogram;
+
+public class SchedulingOperationsService implements OperationsService {
+
+  public static final long AGING_MILLIS_PER_PANCAKE = 100L;
+
+  private static final Comparator<Scheduled> SCHEDULE_ORDER = Comparator
+      .comparingLong((Scheduled scheduled) -> scheduled.priority)
+      .thenComparingLong(scheduled -> scheduled.sequence);
+
+  private final DataService dataService;
+  private final SchedulingPolicy policy;
+  private final PriorityBlockingQueue<Scheduled> completed =
+      new PriorityBlockingQueue<>(11, SCHEDULE_ORDER);
+  private final BlockingQueue<Order> prepared = new LinkedBlockingQueue<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final long cookTimeMillis;
+  private final long cookMillisPerPancake;
+  private final long agingNanosPerPancake;
+  private final LatencyHistogram waitLatency = new LatencyHistogram();
+  private final LatencyHistogram preparationLatency = new LatencyHistogram();
+
+  public SchedulingOperationsService(DataService dataService, SchedulingPolicy policy) {
+    this(new Builder(dataService).policy(policy));
+  }
+
+  private SchedulingOperationsService(Builder builder) {
+    if (builder.cookTimeMillis < 0) {
+      throw new IllegalArgumentException("Invalid cook time: " + builder.cookTimeMillis);
+    }
+    if (builder.cookMillisPerPancake < 0) {
+      throw new IllegalArgumentException(
+          "Invalid cook time per pancake: " + builder.cookMillisPerPancake);
+    }
+    if (builder.agingMillisPerPancake < 0) {
+      throw new IllegalArgumentException(
+          "Invalid aging per pancake: " + builder.agingMillisPerPancake);
+    }
+    this.dataService = builder.dataService;
+    this.policy = builder.policy;
+    this.cookTimeMillis = builder.cookTimeMillis;
+    this.cookMillisPerPancake = builder.cookMillisPerPancake;
+    this.agingNanosPerPancake = TimeUnit.MILLISECONDS.toNanos(builder.agingMillisPerPancake);
+  }
+
+  @Override
+  public void completeOrder(Order order) {
+    int pancakesCount = dataService.getPancakesCount(order.getId());
+    long now = System.nanoTime();
+    completed.put(new Scheduled(order, sequence.getAndIncrement(), now, pancakesCount,
+        policy.priority(now, pancakesCount, agingNanosPerPancake)));
+  }
+
+  @Override
+  public Order prepareOrder(PreparationListener listener, long timeout, TimeUnit unit) {
+    Scheduled scheduled = StageQueues.poll(completed, timeout, unit, StageQueues.COMPLETED);
+    if (scheduled == null) {
+      return null;
+    }
+    Order order = scheduled.order;
+    waitLatency.record(System.nanoTime() - scheduled.enqueuedNanos);
+    listener.preparationStarted(order);
+    StageQueues.cook(cookTimeMillis + scheduled.pancakesCount * cookMillisPerPancake);
+    listener.orderPrepared(order);
+    preparationLatency.record(System.nanoTime() - scheduled.enqueuedNanos);
+    StageQueues.put(prepared, order, StageQueues.PREPARED);
+    listener.orderQueued(order);
+    return order;
+  }
+
+  @Override
+  public Order deliverOrder(long timeout, TimeUnit unit) {
+    return StageQueues.poll(prepared, timeout, unit, StageQueues.PREPARED);
+  }
+
+  @Override
+  public Set<UUID> listCompletedOrders() {
+    return completed.stream().map(scheduled -> scheduled.order.getId())
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Set<UUID> listPreparedOrders() {
+    return StageQueues.listOrders(prepared);
+  }
+
+  public SchedulingPolicy getPolicy() {
+    return policy;
+  }
+
+  public LatencyHistogram getWaitLatency() {
+    return waitLatency;
+  }
+
+  public LatencyHistogram getPreparationLatency() {
+    return preparationLatency;
+  }
+
+  private static class Scheduled {
+
+    private final Order order;
+    private final long sequence;
+    private final long enqueuedNanos;
+    private final int pancakesCount;
+    private final long priority;
+
+    private Scheduled(Order order, long sequence, long enqueuedNanos, int pancakesCount,
+        long priority) {
+      this.order = order;
+      this.sequence = sequence;
+      this.enqueuedNanos = enqueuedNanos;
+      this.pancakesCount = pancakesCount;
+      this.priority = priority;
+    }
+  }
+
+  public static class Builder {
+
+    private final DataService dataService;
+    private SchedulingPolicy policy = SchedulingPolicy.FIFO;
+    private long cookTimeMillis = COOK_TIME_MILLIS;
+    private long cookMillisPerPancake;
+    private long agingMillisPerPancake = AGING_MILLIS_PER_PANCAKE;
+
+    public Builder(DataService dataService) {
+      this.dataService = dataService;
+    }
+
+    public Builder policy(SchedulingPolicy policy) {
+      this.policy = policy;
+      return this;
+    }
+
+    public Builder cookTimeMillis(long cookTimeMillis) {
+      this.cookTimeMillis = cookTimeMillis;
+      return this;
+    }
+
+    public Builder cookMillisPerPancake(long cookMillisPerPancake) {
+      this.cookMillisPerPancake = cookMillisPerPancake;
+      return this;
+    }
+
+    public Builder agingMillisPerPancake(long agingMillisPerPancake) {
+      this.agingMillisPerPancake = agingMillisPerPancake;
+      return this;
+    }
+
+    public SchedulingOperationsService build() {
+      return new SchedulingOperationsService(this);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package org.sweetieslab.service;
+
+public enum SchedulingPolicy {
+
+  FIFO {
+    @Override
+    long priority(long enqueuedNanos, int pancakesCount, long agingNanosPerPancake) {
+      return 0L;
+    }
+  },
+  SHORTEST_JOB_FIRST {
+    @Override
+    long priority(long enqueuedNanos, int pancakesCount, long agingNanosPerPancake) {
+      return pancakesCount;
+    }
+  },
+  AGING {
+    @Override
+    long priority(long enqueuedNanos, int pancakesCount, long agingNanosPerPancake) {
+      return enqueuedNanos + pancakesCount * agingNanosPerPancake;
+    }
+  };
+
+  abstract long priority(long enqueuedNanos, int pancakesCount, long agingNanosPerPancake);
+}
@@ -0,0 +1,67 @@
+package org.sweetieslab.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StageIndex {
+
+  private final ConcurrentNavigableMap<Long, UUID> ordersBySequence =
+      new ConcurrentSkipListMap<>();
+  private final ConcurrentMap<UUID, Long> sequenceByOrder = new ConcurrentHashMap<>();
+  private final AtomicLong nextSequence = new AtomicLong();
+
+  // Both maps are updated while the order's entry in sequenceByOrder is locked, so concurrent
+  // adds and removes of the same order cannot leave a stale sequence behind.
+  public void add(UUID orderId) {
+    long sequence = nextSequence.getAndIncrement();
+    sequenceByOrder.compute(orderId, (id, previous) -> {
+      if (previous != null) {
+        ordersBySequence.remove(previous);
+      }
+      ordersBySequence.put(sequence, id);
+      return sequence;
+    });
+  }
+
+  public void remove(UUID orderId) {
+    sequenceByOrder.computeIfPresent(orderId, (id, sequence) -> {
+      ordersBySequence.remove(sequence);
+      return null;
+    });
+  }
+
+  public boolean contains(UUID orderId) {
+    return sequenceByOrder.containsKey(orderId);
+  }
+
+  public int size() {
+    return sequenceByOrder.size();
+  }
+
+  public Set<UUID> orders() {
+    return Set.copyOf(sequenceByOrder.keySet());
+  }
+
+  public OrderPage page(long cursor, int limit) {
+    OrderPage.checkRequest(cursor, limit);
+    List<UUID> orders = new ArrayList<>(Math.min(limit, 64));
+    Iterator<Map.Entry<Long, UUID>> entries =
+        ordersBySequence.tailMap(cursor, true).entrySet().iterator();
+    long last = cursor;
+    while (orders.size() < limit && entries.hasNext()) {
+      Map.Entry<Long, UUID> entry = entries.next();
+      orders.add(entry.getValue());
+      last = entry.getKey();
+    }
+    return new OrderPage(orders, entries.hasNext() ? last + 1 : OrderPage.END);
+  }
+}
@@ -0,0 +1,65 @@
+package org.sweetieslab.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.service.exception.OperationsServiceException;
+
+final class StageQueues {
+
+  static final String COMPLETED = "completed";
+  static final String PREPARED = "prepared";
+
+  private StageQueues() {
+  }
+
+  static <T> void put(BlockingQueue<T> queue, T element, String stage) {
+    try {
+      queue.put(element);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationsServiceException(
+          "Interrupted while adding order to " + stage + " queue");
+    }
+  }
+
+  static <T> T poll(BlockingQueue<T> queue, long timeout, TimeUnit unit, String stage) {
+    try {
+      return queue.poll(timeout, unit);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationsServiceException(
+          "Interrupted while taking order from " + stage + " queue");
+    }
+  }
+
+  static void cook(long cookTimeMillis) {
+    if (cookTimeMillis == 0) {
+      return;
+    }
+    try {
+      Thread.sleep(cookTimeMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationsServiceException("Interrupted while preparing order");
+    }
+  }
+
+  static RuntimeException addFailure(RuntimeException failure, RuntimeException next) {
+    if (failure == null) {
+      return next;
+    }
+    failure.addSuppressed(next);
+    return failure;
+  }
+
+  static Set<UUID> listOrders(Collection<Order> orders) {
+    Set<UUID> orderIds = new HashSet<>();
+    orders.forEach(order -> orderIds.add(order.getId()));
+    return orderIds;
+  }
+}
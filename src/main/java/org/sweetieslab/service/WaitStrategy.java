@@ -0,0 +1,40 @@
+package org.sweetieslab.service;
+
+import java.util.concurrent.locks.LockSupport;
+
+public enum WaitStrategy {
+  BUSY_SPIN {
+    @Override
+    void idle(int attempt) {
+      Thread.onSpinWait();
+    }
+  },
+  YIELD {
+    @Override
+    void idle(int attempt) {
+      if (attempt < SPIN_ATTEMPTS) {
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+    }
+  },
+  PARK {
+    @Override
+    void idle(int attempt) {
+      if (attempt < SPIN_ATTEMPTS) {
+        Thread.onSpinWait();
+      } else if (attempt < SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+        Thread.yield();
+      } else {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+    }
+  };
+
+  private static final int SPIN_ATTEMPTS = 100;
+  private static final int YIELD_ATTEMPTS = 100;
+  private static final long PARK_NANOS = 50_000L;
+
+  abstract void idle(int attempt);
+}
@@ -0,0 +1,194 @@
+package org.sweetieslab.service;
+
+import static org.sweetieslab.service.CollectionsOperationsService.COOK_TIME_MILLIS;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.service.exception.OperationsServiceException;
+
+public class WorkStealingOperationsService implements OperationsService {
+
+  public static final int DEFAULT_CHEFS = 2;
+  private static final int SPINS_BEFORE_YIELD = 16;
+
+  private final List<LinkedBlockingDeque<Order>> chefQueues;
+  private final BlockingQueue<Order> prepared = new LinkedBlockingQueue<>();
+  private final Semaphore pending = new Semaphore(0);
+  private final long cookTimeMillis;
+  private final boolean buildingAffinity;
+  private final AtomicInteger nextChef = new AtomicInteger();
+  private final AtomicInteger nextWorker = new AtomicInteger();
+  private final AtomicLongArray busyNanos;
+  private final AtomicLongArray preparedCounts;
+  private final AtomicLongArray stolenCounts;
+  private final long startNanos = System.nanoTime();
+
+  public WorkStealingOperationsService() {
+    this(new Builder());
+  }
+
+  private WorkStealingOperationsService(Builder builder) {
+    if (builder.chefs < 1) {
+      throw new IllegalArgumentException("Invalid number of chefs: " + builder.chefs);
+    }
+    if (builder.cookTimeMillis < 0) {
+      throw new IllegalArgumentException("Invalid cook time: " + builder.cookTimeMillis);
+    }
+    List<LinkedBlockingDeque<Order>> queues = new ArrayList<>(builder.chefs);
+    for (int i = 0; i < builder.chefs; i++) {
+      queues.add(new LinkedBlockingDeque<>());
+    }
+    this.chefQueues = List.copyOf(queues);
+    this.cookTimeMillis = builder.cookTimeMillis;
+    this.buildingAffinity = builder.buildingAffinity;
+    this.busyNanos = new AtomicLongArray(builder.chefs);
+    this.preparedCounts = new AtomicLongArray(builder.chefs);
+    this.stolenCounts = new AtomicLongArray(builder.chefs);
+  }
+
+  @Override
+  public void completeOrder(Order order) {
+    chefQueues.get(chefFor(order)).offerLast(order);
+    pending.release();
+  }
+
+  private int chefFor(Order order) {
+    if (buildingAffinity) {
+      return Math.floorMod(order.getBuilding().hashCode(), chefQueues.size());
+    }
+    return Math.floorMod(nextChef.getAndIncrement(), chefQueues.size());
+  }
+
+  @Override
+  public Order prepareOrder(PreparationListener listener, long timeout, TimeUnit unit) {
+    return prepareOrder(nextWorker.getAndIncrement(), listener, timeout, unit);
+  }
+
+  @Override
+  public Order prepareOrder(int worker, PreparationListener listener, long timeout,
+      TimeUnit unit) {
+    int chef = Math.floorMod(worker, chefQueues.size());
+    try {
+      if (!pending.tryAcquire(timeout, unit)) {
+        return null;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationsServiceException("Interrupted while taking order from completed queue");
+    }
+    Order order = take(chef);
+    long start = System.nanoTime();
+    try {
+      listener.preparationStarted(order);
+      StageQueues.cook(cookTimeMillis);
+      listener.orderPrepared(order);
+    } finally {
+      busyNanos.addAndGet(chef, System.nanoTime() - start);
+    }
+    preparedCounts.incrementAndGet(chef);
+    StageQueues.put(prepared, order, StageQueues.PREPARED);
+    listener.orderQueued(order);
+    return order;
+  }
+
+  private Order take(int chef) {
+    // the acquired permit guarantees a queued order, so a missed pass only means another chef
+    // took an order during it and the next pass will find one; yielding after a few passes lets
+    // a virtual thread give up its carrier while the other chefs make progress
+    for (int pass = 0; ; pass++) {
+      Order order = chefQueues.get(chef).pollFirst();
+      if (order != null) {
+        return order;
+      }
+      for (int i = 1; i < chefQueues.size(); i++) {
+        order = chefQueues.get((chef + i) % chefQueues.size()).pollLast();
+        if (order != null) {
+          stolenCounts.incrementAndGet(chef);
+          return order;
+        }
+      }
+      if (pass < SPINS_BEFORE_YIELD) {
+        Thread.onSpinWait();
+      } else {
+        Thread.yield();
+      }
+    }
+  }
+
+  @Override
+  public Order deliverOrder(long timeout, TimeUnit unit) {
+    return StageQueues.poll(prepared, timeout, unit, StageQueues.PREPARED);
+  }
+
+  @Override
+  public Set<UUID> listCompletedOrders() {
+    Set<UUID> orders = new HashSet<>();
+    for (LinkedBlockingDeque<Order> queue : chefQueues) {
+      orders.addAll(StageQueues.listOrders(queue));
+    }
+    return orders;
+  }
+
+  @Override
+  public Set<UUID> listPreparedOrders() {
+    return StageQueues.listOrders(prepared);
+  }
+
+  public int getChefs() {
+    return chefQueues.size();
+  }
+
+  public int getQueuedOrders(int chef) {
+    return chefQueues.get(chef).size();
+  }
+
+  public long getPreparedOrders(int chef) {
+    return preparedCounts.get(chef);
+  }
+
+  public long getStolenOrders(int chef) {
+    return stolenCounts.get(chef);
+  }
+
+  public double getUtilization(int chef) {
+    long elapsed = System.nanoTime() - startNanos;
+    return elapsed > 0 ? Math.min(1.0, (double) busyNanos.get(chef) / elapsed) : 0.0;
+  }
+
+  public static class Builder {
+
+    private int chefs = DEFAULT_CHEFS;
+    private long cookTimeMillis = COOK_TIME_MILLIS;
+    private boolean buildingAffinity;
+
+    public Builder chefs(int chefs) {
+      this.chefs = chefs;
+      return this;
+    }
+
+    public Builder cookTimeMillis(long cookTimeMillis) {
+      this.cookTimeMillis = cookTimeMillis;
+      return this;
+    }
+
+    public Builder buildingAffinity(boolean buildingAffinity) {
+      this.buildingAffinity = buildingAffinity;
+      return this;
+    }
+
+    public WorkStealingOperationsService build() {
+      return new WorkStealingOperationsService(this);
+    }
+  }
+}
@@ -0,0 +1,286 @@
+package org.sweetieslab.service;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderNotFoundException;
+import org.sweetieslab.service.exception.OrderUpdateException;
+import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+import org.sweetieslab.service.exception.PersistenceException;
+import org.sweetieslab.service.wal.FsyncPolicy;
+import org.sweetieslab.service.wal.OrderLogCodec;
+import org.sweetieslab.service.wal.WriteAheadLog;
+
+public class WriteAheadLogDataService implements DataService, AutoCloseable {
+
+  public static final int CHECKPOINT_SEGMENTS = 4;
+  public static final int INITIAL_RECORD_CAPACITY = 1 << 10;
+
+  private static final Logger LOGGER =
+      Logger.getLogger(WriteAheadLogDataService.class.getName());
+
+  private final ConcurrentMapDataService state = new ConcurrentMapDataService();
+  private final WriteAheadLog log;
+  private final int checkpointSegments;
+  private final ReentrantLock mutationLock = new ReentrantLock();
+  private final ReentrantLock checkpointLock = new ReentrantLock();
+  private ByteBuffer record = ByteBuffer.allocate(INITIAL_RECORD_CAPACITY);
+  private volatile int segmentsAtCheckpoint;
+
+  private WriteAheadLogDataService(Builder builder) {
+    if (builder.checkpointSegments < 1) {
+      throw new IllegalArgumentException(
+          "Invalid checkpoint segments: " + builder.checkpointSegments);
+    }
+    this.log = new WriteAheadLog(builder.directory, builder.segmentSize, builder.fsyncPolicy,
+        builder.fsyncIntervalMillis);
+    this.checkpointSegments = builder.checkpointSegments;
+  }
+
+  public static WriteAheadLogDataService open(Path directory) {
+    return new Builder(directory).build();
+  }
+
+  private void recover() {
+    log.replay(this::apply);
+    if (log.getSegmentCount() >= checkpointSegments) {
+      checkpoint();
+    }
+    segmentsAtCheckpoint = log.getSegmentCount();
+  }
+
+  private void apply(byte type, ByteBuffer payload) {
+    try {
+      switch (type) {
+        case OrderLogCodec.ADD_ORDER -> {
+          Order order = OrderLogCodec.readOrder(payload);
+          state.addOrder(order, OrderLogCodec.readPancakes(payload));
+        }
+        case OrderLogCodec.ADD_PANCAKES -> {
+          UUID orderId = OrderLogCodec.readId(payload);
+          state.addPancakes(OrderLogCodec.readRecipe(payload), orderId, payload.getInt());
+        }
+        case OrderLogCodec.REMOVE_PANCAKES -> {
+          UUID orderId = OrderLogCodec.readId(payload);
+          state.removePancakes(OrderLogCodec.readRecipe(payload), orderId, payload.getInt());
+        }
+        case OrderLogCodec.REMOVE_ORDER -> state.removeOrder(OrderLogCodec.readId(payload));
+        default -> LOGGER.warning("Skipped unknown log record type: " + type);
+      }
+    } catch (OrderNotFoundException | PancakesNotFoundForOrder | OrderUpdateException e) {
+      LOGGER.warning("Skipped log record that no longer applies: " + e.getMessage());
+    } catch (RuntimeException e) {
+      throw new PersistenceException("Cannot replay log record of type " + type, e);
+    }
+  }
+
+  @Override
+  public Order addOrder(Order order) {
+    return addOrder(order, Map.of());
+  }
+
+  @Override
+  public Order addOrder(Order order, Map<PancakeRecipe, Integer> pancakes) {
+    Order stored;
+    long position;
+    mutationLock.lock();
+    try {
+      position = append(OrderLogCodec.ADD_ORDER,
+          buffer -> OrderLogCodec.writeOrder(buffer, order, pancakes));
+      stored = state.addOrder(order, pancakes);
+    } finally {
+      mutationLock.unlock();
+    }
+    commit(position);
+    return stored;
+  }
+
+  @Override
+  public Order getOrder(UUID orderId) {
+    return state.getOrder(orderId);
+  }
+
+  @Override
+  public Order findOrder(UUID orderId) {
+    return state.findOrder(orderId);
+  }
+
+  @Override
+  public void addPancakes(PancakeRecipe pancake, UUID orderId, int count) {
+    long position;
+    mutationLock.lock();
+    try {
+      position = append(OrderLogCodec.ADD_PANCAKES,
+          buffer -> OrderLogCodec.writePancakes(buffer, orderId, pancake, count));
+      state.addPancakes(pancake, orderId, count);
+    } finally {
+      mutationLock.unlock();
+    }
+    commit(position);
+  }
+
+  @Override
+  public void removePancakes(PancakeRecipe pancake, UUID orderId, int count) {
+    long position;
+    mutationLock.lock();
+    try {
+      position = append(OrderLogCodec.REMOVE_PANCAKES,
+          buffer -> OrderLogCodec.writePancakes(buffer, orderId, pancake, count));
+      state.removePancakes(pancake, orderId, count);
+    } finally {
+      mutationLock.unlock();
+    }
+    commit(position);
+  }
+
+  @Override
+  public Order removeOrder(UUID orderId) {
+    Order order;
+    long position;
+    mutationLock.lock();
+    try {
+      if (state.findOrder(orderId) == null) {
+        return null;
+      }
+      position = append(OrderLogCodec.REMOVE_ORDER,
+          buffer -> OrderLogCodec.writeId(buffer, orderId));
+      order = state.removeOrder(orderId);
+    } finally {
+      mutationLock.unlock();
+    }
+    commit(position);
+    return order;
+  }
+
+  @Override
+  public boolean orderIsEmpty(UUID orderId) {
+    return state.orderIsEmpty(orderId);
+  }
+
+  @Override
+  public int getPancakesCount(UUID orderId) {
+    return state.getPancakesCount(orderId);
+  }
+
+  @Override
+  public Map<PancakeRecipe, Integer> getPancakes(UUID orderId) {
+    return state.getPancakes(orderId);
+  }
+
+  @Override
+  public List<String> getPancakesDescriptions(UUID orderId) {
+    return state.getPancakesDescriptions(orderId);
+  }
+
+  // mutations are logged before they reach the state, so a failed append leaves the state
+  // untouched; a logged record the state then rejects is rejected again, and skipped, on replay
+  private long append(byte type, Consumer<ByteBuffer> writer) {
+    while (true) {
+      record.clear();
+      try {
+        writer.accept(record);
+        break;
+      } catch (BufferOverflowException e) {
+        record = ByteBuffer.allocate(record.capacity() * 2);
+      }
+    }
+    return log.append(type, record.flip());
+  }
+
+  private void commit(long position) {
+    log.awaitDurable(position);
+    if (log.getSegmentCount() - segmentsAtCheckpoint >= checkpointSegments
+        && checkpointLock.tryLock()) {
+      try {
+        checkpoint();
+      } finally {
+        checkpointLock.unlock();
+      }
+    }
+  }
+
+  public void checkpoint() {
+    checkpointLock.lock();
+    try {
+      long segment;
+      mutationLock.lock();
+      try {
+        segment = log.roll();
+        state.forEachOrder((order, pancakes) -> append(OrderLogCodec.ADD_ORDER,
+            buffer -> OrderLogCodec.writeOrder(buffer, order, pancakes)));
+      } finally {
+        mutationLock.unlock();
+      }
+      log.flush();
+      log.deleteSegmentsBefore(segment);
+      segmentsAtCheckpoint = log.getSegmentCount();
+    } finally {
+      checkpointLock.unlock();
+    }
+  }
+
+  public int getSegmentCount() {
+    return log.getSegmentCount();
+  }
+
+  public void flush() {
+    log.flush();
+  }
+
+  @Override
+  public void close() {
+    log.close();
+  }
+
+  public static class Builder {
+
+    private final Path directory;
+    private int segmentSize = WriteAheadLog.DEFAULT_SEGMENT_SIZE;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+    private long fsyncIntervalMillis = WriteAheadLog.DEFAULT_FSYNC_INTERVAL_MILLIS;
+    private int checkpointSegments = CHECKPOINT_SEGMENTS;
+
+    public Builder(Path directory) {
+      this.directory = directory;
+    }
+
+    public Builder segmentSize(int segmentSize) {
+      this.segmentSize = segmentSize;
+      return this;
+    }
+
+    public Builder fsyncPolicy(FsyncPolicy fsyncPolicy) {
+      this.fsyncPolicy = fsyncPolicy;
+      return this;
+    }
+
+    public Builder fsyncIntervalMillis(long fsyncIntervalMillis) {
+      this.fsyncIntervalMillis = fsyncIntervalMillis;
+      return this;
+    }
+
+    public Builder checkpointSegments(int checkpointSegments) {
+      this.checkpointSegments = checkpointSegments;
+      return this;
+    }
+
+    public WriteAheadLogDataService build() {
+      WriteAheadLogDataService dataService = new WriteAheadLogDataService(this);
+      try {
+        dataService.recover();
+      } catch (RuntimeException e) {
+        dataService.close();
+        throw e;
+      }
+      return dataService;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package org.sweetieslab.service.delivery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.service.ManagementService;
+import org.sweetieslab.service.OperationsService;
+
+public class DeliveryBatcher {
+
+  public static final int DEFAULT_BATCH_SIZE = 8;
+  public static final long DEFAULT_WINDOW_MILLIS = 200L;
+
+  private final ManagementService managementService;
+  private final DistanceTable distanceTable;
+  private final int batchSize;
+  private final long windowNanos;
+
+  private DeliveryBatcher(Builder builder) {
+    if (builder.batchSize < 1) {
+      throw new IllegalArgumentException("Invalid batch size: " + builder.batchSize);
+    }
+    if (builder.windowMillis < 0) {
+      throw new IllegalArgumentException("Invalid batch window: " + builder.windowMillis);
+    }
+    this.managementService = builder.managementService;
+    this.distanceTable = builder.distanceTable;
+    this.batchSize = builder.batchSize;
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(builder.windowMillis);
+  }
+
+  public List<DeliveryRun> nextRuns() {
+    return nextRuns(OperationsService.TIMEOUT, TimeUnit.SECONDS);
+  }
+
+  public List<DeliveryRun> nextRuns(long timeout, TimeUnit unit) {
+    Order first = managementService.deliverOrder(timeout, unit);
+    if (first == null) {
+      return List.of();
+    }
+    List<Order> batch = new ArrayList<>(batchSize);
+    batch.add(first);
+    long deadline = System.nanoTime() + windowNanos;
+    while (batch.size() < batchSize) {
+      Order order = managementService.deliverOrder(Math.max(0L, deadline - System.nanoTime()),
+          TimeUnit.NANOSECONDS);
+      if (order == null) {
+        break;
+      }
+      batch.add(order);
+    }
+    return route(batch);
+  }
+
+  List<DeliveryRun> route(List<Order> orders) {
+    Map<String, List<Order>> byBuilding = new LinkedHashMap<>();
+    for (Order order : orders) {
+      byBuilding.computeIfAbsent(order.getBuilding(), building -> new ArrayList<>()).add(order);
+    }
+    Comparator<Order> routeOrder = distanceTable.routeOrder();
+    List<DeliveryRun> runs = new ArrayList<>(byBuilding.size());
+    byBuilding.forEach((building, stops) -> {
+      stops.sort(routeOrder);
+      runs.add(new DeliveryRun(building, stops));
+    });
+    runs.sort(Comparator.comparing((DeliveryRun run) -> run.getStops().get(0), routeOrder)
+        .thenComparing(DeliveryRun::getBuilding));
+    return runs;
+  }
+
+  public static class Builder {
+
+    private final ManagementService managementService;
+    private DistanceTable distanceTable = new DistanceTable.Builder().build();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long windowMillis = DEFAULT_WINDOW_MILLIS;
+
+    public Builder(ManagementService managementService) {
+      this.managementService = managementService;
+    }
+
+    public Builder distanceTable(DistanceTable distanceTable) {
+      this.distanceTable = distanceTable;
+      return this;
+    }
+
+    public Builder batchSize(int batchSize) {
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    public Builder windowMillis(long windowMillis) {
+      this.windowMillis = windowMillis;
+      return this;
+    }
+
+    public DeliveryBatcher build() {
+      return new DeliveryBatcher(this);
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package org.sweetieslab.service.delivery;
+
+import java.util.List;
+import org.sweetieslab.model.order.Order;
+
+public class DeliveryRun {
+
+  private final String building;
+  private final List<Order> stops;
+
+  DeliveryRun(String building, List<Order> stops) {
+    this.building = building;
+    this.stops = List.copyOf(stops);
+  }
+
+  public String getBuilding() {
+    return building;
+  }
+
+  public List<Order> getStops() {
+    return stops;
+  }
+
+  public int size() {
+    return stops.size();
+  }
+}
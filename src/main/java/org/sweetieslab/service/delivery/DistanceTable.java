@@ -0,0 +1,54 @@
+package org.sweetieslab.service.delivery;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import org.sweetieslab.model.order.Order;
+
+public class DistanceTable {
+
+  public static final int UNKNOWN_DISTANCE = Integer.MAX_VALUE;
+
+  private static final Comparator<String> ROOM_ORDER = Comparator
+      .comparingInt(String::length)
+      .thenComparing(Comparator.naturalOrder());
+
+  private final Map<String, Map<String, Integer>> distances;
+
+  private DistanceTable(Map<String, Map<String, Integer>> distances) {
+    this.distances = distances;
+  }
+
+  public int getDistance(String building, String room) {
+    Map<String, Integer> rooms = distances.get(building);
+    if (rooms == null) {
+      return UNKNOWN_DISTANCE;
+    }
+    return rooms.getOrDefault(room, UNKNOWN_DISTANCE);
+  }
+
+  public Comparator<Order> routeOrder() {
+    return Comparator.<Order>comparingInt(order -> getDistance(order.getBuilding(),
+            order.getRoom()))
+        .thenComparing(Order::getRoom, ROOM_ORDER);
+  }
+
+  public static class Builder {
+
+    private final Map<String, Map<String, Integer>> distances = new HashMap<>();
+
+    public Builder distance(String building, String room, int distance) {
+      if (distance < 0) {
+        throw new IllegalArgumentException("Invalid distance: " + distance);
+      }
+      distances.computeIfAbsent(building, key -> new HashMap<>()).put(room, distance);
+      return this;
+    }
+
+    public DistanceTable build() {
+      Map<String, Map<String, Integer>> copy = new HashMap<>();
+      distances.forEach((building, rooms) -> copy.put(building, Map.copyOf(rooms)));
+      return new DistanceTable(Map.copyOf(copy));
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package org.sweetieslab.service.exception;
+
+public class OrderRejectedException extends OperationsServiceException {
+
+  public OrderRejectedException(String message) {
+    super(message);
+  }
+}
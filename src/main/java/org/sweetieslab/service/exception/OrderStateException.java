@@ -0,0 +1,8 @@
+package org.sweetieslab.service.exception;
+
+public class OrderStateException extends RuntimeException {
+
+  public OrderStateException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,12 @@
+package org.sweetieslab.service.exception;
+
+public class PersistenceException extends RuntimeException {
+
+  public PersistenceException(String message) {
+    super(message);
+  }
+
+  public PersistenceException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
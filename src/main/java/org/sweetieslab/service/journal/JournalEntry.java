@@ -0,0 +1,54 @@
+package org.sweetieslab.service.journal;
+
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+
+public final class JournalEntry {
+
+  private long sequence;
+  private long timestampNanos;
+  private LifecycleEventType type;
+  private Order order;
+  private PancakeRecipe pancake;
+  private int count;
+  private int pancakesCount;
+
+  void set(long sequence, long timestampNanos, LifecycleEventType type, Order order,
+      PancakeRecipe pancake, int count, int pancakesCount) {
+    this.sequence = sequence;
+    this.timestampNanos = timestampNanos;
+    this.type = type;
+    this.order = order;
+    this.pancake = pancake;
+    this.count = count;
+    this.pancakesCount = pancakesCount;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public long getTimestampNanos() {
+    return timestampNanos;
+  }
+
+  public LifecycleEventType getType() {
+    return type;
+  }
+
+  public Order getOrder() {
+    return order;
+  }
+
+  public PancakeRecipe getPancake() {
+    return pancake;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public int getPancakesCount() {
+    return pancakesCount;
+  }
+}
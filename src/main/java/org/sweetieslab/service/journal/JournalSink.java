@@ -0,0 +1,9 @@
+package org.sweetieslab.service.journal;
+
+public interface JournalSink {
+
+  void write(JournalEntry entry);
+
+  default void flush() {
+  }
+}
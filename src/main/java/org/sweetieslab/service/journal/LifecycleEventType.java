@@ -0,0 +1,6 @@
+package org.sweetieslab.service.journal;
+
+public enum LifecycleEventType {
+  CREATED, SUBMITTED, PANCAKES_ADDED, PANCAKES_REMOVED, CANCELLED, COMPLETED, REOPENED, PREPARED,
+  DELIVERED
+}
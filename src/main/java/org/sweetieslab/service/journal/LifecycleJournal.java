@@ -0,0 +1,163 @@
+package org.sweetieslab.service.journal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+
+public class LifecycleJournal implements AutoCloseable {
+
+  private static final Logger LOGGER = Logger.getLogger(LifecycleJournal.class.getName());
+
+  public static final int DEFAULT_CAPACITY = 1 << 14;
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+  private static final int YIELDS_BEFORE_PARK = 16;
+  private static final long CLOSED = 1L << 62;
+  private static final LifecycleEventType[] TYPES = LifecycleEventType.values();
+
+  private final int mask;
+  private final AtomicLongArray published;
+  private final long[] timestamps;
+  private final int[] types;
+  private final Order[] orders;
+  private final PancakeRecipe[] pancakes;
+  private final int[] counts;
+  private final int[] pancakesCounts;
+
+  private final AtomicLong claimed = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private volatile long consumed;
+  private volatile long closedAt = Long.MAX_VALUE;
+  private volatile boolean sleeping;
+  private final JournalSink sink;
+  private final Thread drainer;
+
+  public LifecycleJournal() {
+    this(DEFAULT_CAPACITY, new LoggingJournalSink());
+  }
+
+  public LifecycleJournal(int capacity, JournalSink sink) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+    this.mask = capacity - 1;
+    this.published = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      published.set(i, -1L);
+    }
+    this.timestamps = new long[capacity];
+    this.types = new int[capacity];
+    this.orders = new Order[capacity];
+    this.pancakes = new PancakeRecipe[capacity];
+    this.counts = new int[capacity];
+    this.pancakesCounts = new int[capacity];
+    this.sink = sink;
+    this.drainer = new Thread(this::drain, "lifecycle-journal");
+    this.drainer.setDaemon(true);
+    this.drainer.start();
+  }
+
+  public void record(LifecycleEventType type, Order order, int pancakesCount) {
+    record(type, order, null, 0, pancakesCount);
+  }
+
+  public void record(LifecycleEventType type, Order order, PancakeRecipe pancake, int count,
+      int pancakesCount) {
+    if (claimed.get() >= CLOSED) {
+      dropped.increment();
+      return;
+    }
+    long sequence = claimed.getAndIncrement();
+    if (sequence >= CLOSED) {
+      dropped.increment();
+      return;
+    }
+    for (int attempt = 0; sequence - consumed >= published.length(); attempt++) {
+      if (!drainer.isAlive()) {
+        dropped.increment();
+        return;
+      }
+      LockSupport.unpark(drainer);
+      backOff(attempt);
+    }
+    int slot = (int) sequence & mask;
+    timestamps[slot] = System.nanoTime();
+    types[slot] = type.ordinal();
+    orders[slot] = order;
+    pancakes[slot] = pancake;
+    counts[slot] = count;
+    pancakesCounts[slot] = pancakesCount;
+    // Volatile publish so that the sleeping check below cannot miss a drainer going to park.
+    published.set(slot, sequence);
+    if (sleeping) {
+      LockSupport.unpark(drainer);
+    }
+  }
+
+  private void drain() {
+    JournalEntry entry = new JournalEntry();
+    long next = 0;
+    while (next < closedAt) {
+      int slot = (int) next & mask;
+      if (published.get(slot) != next) {
+        sink.flush();
+        sleeping = true;
+        if (published.get(slot) != next && next < closedAt) {
+          LockSupport.park(this);
+        }
+        sleeping = false;
+        continue;
+      }
+      entry.set(next, timestamps[slot], TYPES[types[slot]], orders[slot], pancakes[slot],
+          counts[slot], pancakesCounts[slot]);
+      orders[slot] = null;
+      pancakes[slot] = null;
+      try {
+        sink.write(entry);
+      } catch (RuntimeException e) {
+        LOGGER.log(Level.WARNING, "Failed to write journal entry " + next, e);
+      }
+      consumed = ++next;
+    }
+    sink.flush();
+  }
+
+  public void flush() {
+    long target = Math.min(claimed.get(), closedAt);
+    for (int attempt = 0; consumed < target && drainer.isAlive(); attempt++) {
+      LockSupport.unpark(drainer);
+      backOff(attempt);
+    }
+  }
+
+  public long getDroppedEvents() {
+    return dropped.sum();
+  }
+
+  private static void backOff(int attempt) {
+    if (attempt < YIELDS_BEFORE_PARK) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(FULL_PARK_NANOS);
+    }
+  }
+
+  @Override
+  public void close() {
+    long claimedBeforeClose = claimed.getAndAdd(CLOSED);
+    if (claimedBeforeClose < CLOSED) {
+      closedAt = claimedBeforeClose;
+      LockSupport.unpark(drainer);
+    }
+    try {
+      drainer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package org.sweetieslab.service.journal;
+
+import static org.sweetieslab.service.ManagementService.ADDED_PANCAKES_MESSAGE;
+import static org.sweetieslab.service.ManagementService.CANCELLED_ORDER_MESSAGE;
+import static org.sweetieslab.service.ManagementService.COMPLETED_ORDER_MESSAGE;
+import static org.sweetieslab.service.ManagementService.CREATED_ORDER_MESSAGE;
+import static org.sweetieslab.service.ManagementService.DELIVERED_ORDER_MESSAGE;
+import static org.sweetieslab.service.ManagementService.PREPARED_ORDER_MESSAGE;
+import static org.sweetieslab.service.ManagementService.REMOVED_PANCAKES_MESSAGE;
+import static org.sweetieslab.service.ManagementService.REOPENED_ORDER_MESSAGE;
+import static org.sweetieslab.service.ManagementService.SUBMITTED_ORDER_MESSAGE;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.service.ManagementService;
+
+public class LoggingJournalSink implements JournalSink {
+
+  private static final Logger LOGGER = Logger.getLogger(ManagementService.class.getName());
+
+  @Override
+  public void write(JournalEntry entry) {
+    if (LOGGER.isLoggable(Level.INFO)) {
+      LOGGER.info(format(entry));
+    }
+  }
+
+  public static String format(JournalEntry entry) {
+    Order order = entry.getOrder();
+    return switch (entry.getType()) {
+      case CREATED -> CREATED_ORDER_MESSAGE.formatted(order.getId(), order.getBuilding(),
+          order.getRoom());
+      case SUBMITTED -> SUBMITTED_ORDER_MESSAGE.formatted(order.getId(),
+          entry.getPancakesCount(), order.getBuilding(), order.getRoom());
+      case PANCAKES_ADDED -> ADDED_PANCAKES_MESSAGE.formatted(entry.getCount(),
+          entry.getPancake(), order.getId(), entry.getPancakesCount(), order.getBuilding(),
+          order.getRoom());
+      case PANCAKES_REMOVED -> REMOVED_PANCAKES_MESSAGE.formatted(entry.getCount(),
+          entry.getPancake(), order.getId(), entry.getPancakesCount(), order.getBuilding(),
+          order.getRoom());
+      case CANCELLED -> CANCELLED_ORDER_MESSAGE.formatted(order.getId(),
+          entry.getPancakesCount(), order.getBuilding(), order.getRoom());
+      case COMPLETED -> COMPLETED_ORDER_MESSAGE.formatted(order.getId(),
+          entry.getPancakesCount(), order.getBuilding(), order.getRoom());
+      case REOPENED -> REOPENED_ORDER_MESSAGE.formatted(order.getId(),
+          entry.getPancakesCount(), order.getBuilding(), order.getRoom());
+      case PREPARED -> PREPARED_ORDER_MESSAGE.formatted(order.getId(),
+          entry.getPancakesCount(), order.getBuilding(), order.getRoom());
+      case DELIVERED -> DELIVERED_ORDER_MESSAGE.formatted(order.getId(),
+          entry.getPancakesCount(), order.getBuilding(), order.getRoom());
+    };
+  }
+}
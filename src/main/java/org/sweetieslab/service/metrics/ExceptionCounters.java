@@ -0,0 +1,23 @@
+package org.sweetieslab.service.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ExceptionCounters {
+
+  private final ConcurrentMap<Class<?>, LongAdder> counters = new ConcurrentHashMap<>();
+
+  public <T extends RuntimeException> T record(T exception) {
+    counters.computeIfAbsent(exception.getClass(), type -> new LongAdder()).increment();
+    return exception;
+  }
+
+  public Map<String, Long> snapshot() {
+    Map<String, Long> snapshot = new TreeMap<>();
+    counters.forEach((type, counter) -> snapshot.put(type.getSimpleName(), counter.sum()));
+    return snapshot;
+  }
+}
@@ -0,0 +1,101 @@
+package org.sweetieslab.service.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  public void record(long nanos) {
+    long value = Math.max(0L, nanos);
+    counts.incrementAndGet(bucketOf(value));
+    count.increment();
+    sum.add(value);
+    long current;
+    while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+      Thread.onSpinWait();
+    }
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lower + (1L << shift) - 1;
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getMean() {
+    long total = count.sum();
+    return total == 0 ? 0L : sum.sum() / total;
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public long getPercentile(double quantile) {
+    if (quantile < 0.0 || quantile > 1.0) {
+      throw new IllegalArgumentException("Invalid quantile: " + quantile);
+    }
+    return percentiles(quantile)[0];
+  }
+
+  public LatencySnapshot snapshot() {
+    long[] percentiles = percentiles(0.5, 0.99, 0.999);
+    return new LatencySnapshot(getCount(), getMean(), percentiles[0], percentiles[1],
+        percentiles[2], getMax());
+  }
+
+  public String summary() {
+    return snapshot().summary();
+  }
+
+  private long[] percentiles(double... quantiles) {
+    long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    long[] values = new long[quantiles.length];
+    if (total == 0) {
+      return values;
+    }
+    long max = getMax();
+    int bucket = 0;
+    long seen = snapshot[0];
+    for (int q = 0; q < quantiles.length; q++) {
+      long rank = Math.max(1L, (long) Math.ceil(quantiles[q] * total));
+      while (seen < rank && bucket < BUCKETS - 1) {
+        seen += snapshot[++bucket];
+      }
+      values[q] = Math.min(upperBoundOf(bucket), max);
+    }
+    return values;
+  }
+}
@@ -0,0 +1,18 @@
+package org.sweetieslab.service.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+public record LatencySnapshot(long count, long mean, long p50, long p99, long p999, long max) {
+
+  public static final String SUMMARY_MESSAGE =
+      "count=%d, mean=%d us, p50=%d us, p99=%d us, p999=%d us, max=%d us";
+
+  public String summary() {
+    return SUMMARY_MESSAGE.formatted(count, micros(mean), micros(p50), micros(p99), micros(p999),
+        micros(max));
+  }
+
+  private static long micros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+}
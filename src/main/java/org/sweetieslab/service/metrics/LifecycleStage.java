@@ -0,0 +1,31 @@
+package org.sweetieslab.service.metrics;
+
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
+
+public enum LifecycleStage {
+  COMPLETED_QUEUE(OrderStatus.COMPLETED, OrderStatus.PREPARING),
+  COOK(OrderStatus.PREPARING, OrderStatus.PREPARED),
+  PREPARED_QUEUE(OrderStatus.PREPARED, OrderStatus.OUT_FOR_DELIVERY),
+  END_TO_END(OrderStatus.OPEN, OrderStatus.OUT_FOR_DELIVERY);
+
+  private final OrderStatus from;
+  private final OrderStatus to;
+
+  LifecycleStage(OrderStatus from, OrderStatus to) {
+    this.from = from;
+    this.to = to;
+  }
+
+  public OrderStatus getFrom() {
+    return from;
+  }
+
+  public OrderStatus getTo() {
+    return to;
+  }
+
+  public long elapsedNanos(Order order) {
+    return order.getTransitionNanos(to) - order.getTransitionNanos(from);
+  }
+}
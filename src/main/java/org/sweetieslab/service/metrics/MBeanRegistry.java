@@ -0,0 +1,54 @@
+package org.sweetieslab.service.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class MBeanRegistry implements AutoCloseable {
+
+  public static final String DOMAIN = "org.sweetieslab";
+  public static final String OBJECT_NAME = "%s:type=%s,name=%d";
+
+  private static final Logger LOGGER = Logger.getLogger(MBeanRegistry.class.getName());
+  private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+  private final MBeanServer server;
+  private final List<ObjectName> registered = new ArrayList<>();
+
+  public MBeanRegistry() {
+    this(ManagementFactory.getPlatformMBeanServer());
+  }
+
+  public MBeanRegistry(MBeanServer server) {
+    this.server = server;
+  }
+
+  public synchronized ObjectName register(Object mbean) {
+    try {
+      ObjectName name = new ObjectName(OBJECT_NAME.formatted(DOMAIN,
+          mbean.getClass().getSimpleName(), INSTANCES.incrementAndGet()));
+      server.registerMBean(mbean, name);
+      registered.add(name);
+      return name;
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot register MBean: " + mbean.getClass().getName(), e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    for (ObjectName name : registered) {
+      try {
+        server.unregisterMBean(name);
+      } catch (JMException e) {
+        LOGGER.warning("Cannot unregister MBean " + name + ": " + e.getMessage());
+      }
+    }
+    registered.clear();
+  }
+}
@@ -0,0 +1,31 @@
+package org.sweetieslab.service.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import org.sweetieslab.model.order.Order;
+
+public class StageLatencies {
+
+  private final Map<LifecycleStage, LatencyHistogram> histograms =
+      new EnumMap<>(LifecycleStage.class);
+
+  public StageLatencies() {
+    for (LifecycleStage stage : LifecycleStage.values()) {
+      histograms.put(stage, new LatencyHistogram());
+    }
+  }
+
+  public void record(LifecycleStage stage, Order order) {
+    histograms.get(stage).record(stage.elapsedNanos(order));
+  }
+
+  public LatencySnapshot snapshot(LifecycleStage stage) {
+    return histograms.get(stage).snapshot();
+  }
+
+  public Map<LifecycleStage, LatencySnapshot> snapshot() {
+    Map<LifecycleStage, LatencySnapshot> snapshots = new EnumMap<>(LifecycleStage.class);
+    histograms.forEach((stage, histogram) -> snapshots.put(stage, histogram.snapshot()));
+    return snapshots;
+  }
+}
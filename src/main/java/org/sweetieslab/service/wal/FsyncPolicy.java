@@ -0,0 +1,5 @@
+package org.sweetieslab.service.wal;
+
+public enum FsyncPolicy {
+  NONE, INTERVAL, COMMIT
+}
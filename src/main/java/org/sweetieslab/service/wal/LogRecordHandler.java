@@ -0,0 +1,9 @@
+package org.sweetieslab.service.wal;
+
+import java.nio.ByteBuffer;
+
+@FunctionalInterface
+public interface LogRecordHandler {
+
+  void handle(byte type, ByteBuffer payload);
+}
@@ -0,0 +1,97 @@
+package org.sweetieslab.service.wal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.pancakes.Ingredient;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+
+public final class OrderLogCodec {
+
+  public static final byte ADD_ORDER = 1;
+  public static final byte ADD_PANCAKES = 2;
+  public static final byte REMOVE_PANCAKES = 3;
+  public static final byte REMOVE_ORDER = 4;
+
+  private static final Ingredient[] INGREDIENTS = Ingredient.values();
+
+  private OrderLogCodec() {
+  }
+
+  public static void writeOrder(ByteBuffer buffer, Order order,
+      Map<PancakeRecipe, Integer> pancakes) {
+    writeId(buffer, order.getId());
+    writeString(buffer, order.getBuilding());
+    writeString(buffer, order.getRoom());
+    buffer.putInt(pancakes.size());
+    pancakes.forEach((pancake, count) -> {
+      writeRecipe(buffer, pancake);
+      buffer.putInt(count);
+    });
+  }
+
+  public static Order readOrder(ByteBuffer buffer) {
+    return Order.restore(readId(buffer), readString(buffer), readString(buffer));
+  }
+
+  public static Map<PancakeRecipe, Integer> readPancakes(ByteBuffer buffer) {
+    int size = buffer.getInt();
+    Map<PancakeRecipe, Integer> pancakes = new HashMap<>(size * 2);
+    for (int i = 0; i < size; i++) {
+      pancakes.merge(readRecipe(buffer), buffer.getInt(), Integer::sum);
+    }
+    return pancakes;
+  }
+
+  public static void writePancakes(ByteBuffer buffer, UUID orderId, PancakeRecipe pancake,
+      int count) {
+    writeId(buffer, orderId);
+    writeRecipe(buffer, pancake);
+    buffer.putInt(count);
+  }
+
+  public static void writeId(ByteBuffer buffer, UUID id) {
+    buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+  }
+
+  public static UUID readId(ByteBuffer buffer) {
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+
+  public static void writeRecipe(ByteBuffer buffer, PancakeRecipe pancake) {
+    long mask = pancake.getIngredientMask();
+    buffer.putLong(mask);
+    for (Ingredient ingredient : INGREDIENTS) {
+      if ((mask & (1L << ingredient.ordinal())) != 0) {
+        buffer.putInt(pancake.getQuantity(ingredient));
+      }
+    }
+  }
+
+  public static PancakeRecipe readRecipe(ByteBuffer buffer) {
+    long mask = buffer.getLong();
+    EnumMap<Ingredient, Integer> ingredients = new EnumMap<>(Ingredient.class);
+    for (Ingredient ingredient : INGREDIENTS) {
+      if ((mask & (1L << ingredient.ordinal())) != 0) {
+        ingredients.put(ingredient, buffer.getInt());
+      }
+    }
+    return PancakeFactory.getPancakeRecipe(ingredients);
+  }
+
+  private static void writeString(ByteBuffer buffer, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putInt(bytes.length).put(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,329 @@
+package org.sweetieslab.service.wal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.sweetieslab.service.exception.PersistenceException;
+
+public class WriteAheadLog implements AutoCloseable {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+  public static final int MIN_SEGMENT_SIZE = 4 << 10;
+  public static final long DEFAULT_FSYNC_INTERVAL_MILLIS = 10L;
+  public static final String SEGMENT_FILE = "wal-%016d.log";
+  public static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Byte.BYTES;
+
+  private static final Logger LOGGER = Logger.getLogger(WriteAheadLog.class.getName());
+  private static final Pattern SEGMENT_PATTERN = Pattern.compile("wal-(\\d{16})\\.log");
+
+  private final Path directory;
+  private final int segmentSize;
+  private final FsyncPolicy fsyncPolicy;
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final ReentrantLock forceLock = new ReentrantLock();
+  private final NavigableMap<Long, Path> segments = new TreeMap<>();
+  private final List<Segment> unforcedSegments = new ArrayList<>();
+  private final CRC32C checksum = new CRC32C();
+  private final ScheduledExecutorService flusher;
+  private Segment current;
+  private volatile long writtenPosition;
+  private volatile long durablePosition;
+  private volatile boolean closed;
+
+  public WriteAheadLog(Path directory) {
+    this(directory, DEFAULT_SEGMENT_SIZE, FsyncPolicy.INTERVAL, DEFAULT_FSYNC_INTERVAL_MILLIS);
+  }
+
+  public WriteAheadLog(Path directory, int segmentSize, FsyncPolicy fsyncPolicy,
+      long fsyncIntervalMillis) {
+    if (segmentSize < MIN_SEGMENT_SIZE) {
+      throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+    }
+    if (fsyncPolicy == FsyncPolicy.INTERVAL && fsyncIntervalMillis < 1) {
+      throw new IllegalArgumentException("Invalid fsync interval: " + fsyncIntervalMillis);
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.fsyncPolicy = fsyncPolicy;
+    try {
+      Files.createDirectories(directory);
+      try (Stream<Path> files = Files.list(directory)) {
+        files.forEach(file -> {
+          Matcher matcher = SEGMENT_PATTERN.matcher(file.getFileName().toString());
+          if (matcher.matches()) {
+            segments.put(Long.parseLong(matcher.group(1)), file);
+          }
+        });
+      }
+    } catch (IOException e) {
+      throw new PersistenceException("Cannot open write-ahead log in " + directory, e);
+    }
+    if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+      flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wal-flusher");
+        thread.setDaemon(true);
+        return thread;
+      });
+      flusher.scheduleWithFixedDelay(this::flushQuietly, fsyncIntervalMillis,
+          fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+    } else {
+      flusher = null;
+    }
+  }
+
+  public void replay(LogRecordHandler handler) {
+    appendLock.lock();
+    try {
+      for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+        if (!replaySegment(segment.getValue(), handler)) {
+          LOGGER.warning("Skipped torn tail of " + segment.getValue());
+        }
+      }
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  private boolean replaySegment(Path file, LogRecordHandler handler) {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      throw new PersistenceException("Cannot read write-ahead log segment " + file, e);
+    }
+    CRC32C crc = new CRC32C();
+    while (buffer.remaining() >= HEADER_SIZE) {
+      int start = buffer.position();
+      int length = buffer.getInt();
+      if (length == 0) {
+        return true;
+      }
+      int expected = buffer.getInt();
+      if (length < 0 || length > buffer.remaining() - Byte.BYTES) {
+        return false;
+      }
+      crc.reset();
+      crc.update(buffer.slice(start + Integer.BYTES * 2, Byte.BYTES + length));
+      if ((int) crc.getValue() != expected) {
+        return false;
+      }
+      byte type = buffer.get();
+      ByteBuffer payload = buffer.slice(buffer.position(), length).asReadOnlyBuffer();
+      buffer.position(buffer.position() + length);
+      handler.handle(type, payload);
+    }
+    return true;
+  }
+
+  public long append(byte type, ByteBuffer payload) {
+    int length = payload.remaining();
+    if (HEADER_SIZE + length > segmentSize) {
+      throw new IllegalArgumentException("Record too large for segment: " + length);
+    }
+    appendLock.lock();
+    try {
+      checkOpen();
+      if (current == null || current.buffer.remaining() < HEADER_SIZE + length) {
+        rollSegment();
+      }
+      checksum.reset();
+      checksum.update(type);
+      checksum.update(payload.duplicate());
+      MappedByteBuffer buffer = current.buffer;
+      buffer.putInt(length).putInt((int) checksum.getValue()).put(type).put(payload);
+      writtenPosition = current.basePosition + buffer.position();
+      return writtenPosition;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  public void awaitDurable(long position) {
+    if (fsyncPolicy != FsyncPolicy.COMMIT || durablePosition >= position) {
+      return;
+    }
+    forceLock.lock();
+    try {
+      if (durablePosition < position) {
+        force();
+      }
+    } finally {
+      forceLock.unlock();
+    }
+  }
+
+  public void flush() {
+    forceLock.lock();
+    try {
+      force();
+    } finally {
+      forceLock.unlock();
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      LOGGER.warning("Write-ahead log flush failed: " + e.getMessage());
+    }
+  }
+
+  // Only called under forceLock, which therefore also guards Segment.forcedOffset.
+  private void force() {
+    Segment segment;
+    long target;
+    List<Segment> retired;
+    appendLock.lock();
+    try {
+      segment = current;
+      target = writtenPosition;
+      retired = List.copyOf(unforcedSegments);
+    } finally {
+      appendLock.unlock();
+    }
+    for (Segment retiredSegment : retired) {
+      retiredSegment.force(retiredSegment.buffer.position());
+    }
+    if (!retired.isEmpty()) {
+      appendLock.lock();
+      try {
+        unforcedSegments.subList(0, retired.size()).clear();
+      } finally {
+        appendLock.unlock();
+      }
+    }
+    if (segment != null && target > durablePosition) {
+      segment.force((int) (target - segment.basePosition));
+    }
+    durablePosition = Math.max(durablePosition, target);
+  }
+
+  public long roll() {
+    appendLock.lock();
+    try {
+      checkOpen();
+      rollSegment();
+      return current.sequence;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  // The retired segment is forced by the next force() so that the msync runs under forceLock
+  // rather than appendLock.
+  private void rollSegment() {
+    if (current != null && fsyncPolicy != FsyncPolicy.NONE) {
+      unforcedSegments.add(current);
+    }
+    long sequence = segments.isEmpty() ? 0L : segments.lastKey() + 1;
+    Path file = directory.resolve(SEGMENT_FILE.formatted(sequence));
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+      current = new Segment(sequence, buffer, writtenPosition);
+    } catch (IOException e) {
+      throw new PersistenceException("Cannot create write-ahead log segment " + file, e);
+    }
+    segments.put(sequence, file);
+  }
+
+  public void deleteSegmentsBefore(long sequence) {
+    appendLock.lock();
+    try {
+      Iterator<Map.Entry<Long, Path>> iterator = segments.headMap(sequence).entrySet().iterator();
+      while (iterator.hasNext()) {
+        Path file = iterator.next().getValue();
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException e) {
+          throw new PersistenceException("Cannot delete write-ahead log segment " + file, e);
+        }
+        iterator.remove();
+      }
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  public int getSegmentCount() {
+    appendLock.lock();
+    try {
+      return segments.size();
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  public long getWrittenPosition() {
+    return writtenPosition;
+  }
+
+  public long getDurablePosition() {
+    return durablePosition;
+  }
+
+  public FsyncPolicy getFsyncPolicy() {
+    return fsyncPolicy;
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new PersistenceException("Write-ahead log closed: " + directory);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    if (flusher != null) {
+      flusher.shutdownNow();
+    }
+    if (fsyncPolicy != FsyncPolicy.NONE) {
+      flush();
+    }
+    closed = true;
+  }
+
+  private static class Segment {
+
+    private final long sequence;
+    private final MappedByteBuffer buffer;
+    private final long basePosition;
+    private int forcedOffset;
+
+    private Segment(long sequence, MappedByteBuffer buffer, long basePosition) {
+      this.sequence = sequence;
+      this.buffer = buffer;
+      this.basePosition = basePosition;
+    }
+
+    private void force(int offset) {
+      if (offset > forcedOffset) {
+        buffer.force(forcedOffset, offset - forcedOffset);
+        forcedOffset = offset;
+      }
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package org.sweetieslab.workers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.service.ManagementService;
+import org.sweetieslab.service.OperationsService;
+import org.sweetieslab.service.delivery.DeliveryBatcher;
+import org.sweetieslab.service.delivery.DeliveryRun;
+
+public class StageRuntime implements AutoCloseable {
+
+  private static final Logger LOGGER = Logger.getLogger(StageRuntime.class.getName());
+
+  private final ManagementService managementService;
+  private final ExecutorService chefExecutor;
+  private final ExecutorService courierExecutor;
+  private final DeliveryBatcher deliveryBatcher;
+  private final Queue<Integer> idleChefs = new ConcurrentLinkedQueue<>();
+  private final Consumer<Order> onCompleted = order -> submit(this::prepare, true);
+  private final Consumer<Order> onPrepared = order -> submit(this::deliver, false);
+  private final ReentrantLock lifecycleLock = new ReentrantLock();
+  private volatile boolean started;
+
+  public StageRuntime(ManagementService managementService, ExecutorService chefExecutor,
+      ExecutorService courierExecutor) {
+    this(managementService, chefExecutor, 1, courierExecutor);
+  }
+
+  public StageRuntime(ManagementService managementService, ExecutorService chefExecutor,
+      int chefs, ExecutorService courierExecutor) {
+    this(managementService, chefExecutor, chefs, courierExecutor, null);
+  }
+
+  public StageRuntime(ManagementService managementService, ExecutorService chefExecutor,
+      int chefs, ExecutorService courierExecutor, DeliveryBatcher deliveryBatcher) {
+    if (chefs < 1) {
+      throw new IllegalArgumentException("Invalid number of chefs: " + chefs);
+    }
+    this.managementService = managementService;
+    this.chefExecutor = chefExecutor;
+    this.courierExecutor = courierExecutor;
+    this.deliveryBatcher = deliveryBatcher;
+    for (int chef = 0; chef < chefs; chef++) {
+      idleChefs.add(chef);
+    }
+  }
+
+  public void start() {
+    lifecycleLock.lock();
+    try {
+      if (started) {
+        throw new IllegalStateException("Stage runtime already started");
+      }
+      if (chefExecutor.isShutdown() || courierExecutor.isShutdown()) {
+        throw new IllegalStateException("Stage runtime already stopped");
+      }
+      managementService.addPreparedListener(onPrepared);
+      managementService.addCompletionListener(onCompleted);
+      started = true;
+      int backlog = managementService.countCompletedOrders();
+      for (int i = 0; i < backlog; i++) {
+        submit(this::prepare, true);
+      }
+      int prepared = managementService.countPreparedOrders();
+      for (int i = 0; i < prepared; i++) {
+        submit(this::deliver, false);
+      }
+    } finally {
+      lifecycleLock.unlock();
+    }
+  }
+
+  public void stop() {
+    lifecycleLock.lock();
+    try {
+      if (!started) {
+        return;
+      }
+      started = false;
+      managementService.removeCompletionListener(onCompleted);
+      try {
+        chefExecutor.shutdown();
+        awaitTermination(chefExecutor);
+        courierExecutor.shutdown();
+        awaitTermination(courierExecutor);
+      } finally {
+        managementService.removePreparedListener(onPrepared);
+      }
+    } finally {
+      lifecycleLock.unlock();
+    }
+  }
+
+  public boolean isStarted() {
+    return started;
+  }
+
+  private static void awaitTermination(ExecutorService executor) {
+    try {
+      while (!executor.awaitTermination(OperationsService.TIMEOUT, TimeUnit.SECONDS)) {
+        LOGGER.warning("Waiting for stage to drain");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      executor.shutdownNow();
+    }
+  }
+
+  private void submit(Runnable task, boolean preparation) {
+    try {
+      (preparation ? chefExecutor : courierExecutor).execute(task);
+    } catch (RejectedExecutionException e) {
+      LOGGER.warning("Stage stopped, order left queued: " + e.getMessage());
+    }
+  }
+
+  private void prepare() {
+    Integer chef = idleChefs.poll();
+    try {
+      managementService.prepareOrder(chef != null ? chef : 0, 0L, TimeUnit.NANOSECONDS);
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Preparation failed", e);
+    } finally {
+      if (chef != null) {
+        idleChefs.offer(chef);
+      }
+    }
+  }
+
+  private void deliver() {
+    try {
+      if (deliveryBatcher == null) {
+        managementService.deliverOrder(0L, TimeUnit.NANOSECONDS);
+        return;
+      }
+      for (DeliveryRun run : deliveryBatcher.nextRuns(0L, TimeUnit.NANOSECONDS)) {
+        LOGGER.fine(() -> "Courier run to building " + run.getBuilding() + " with "
+            + run.size() + " stops");
+      }
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Delivery failed", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    stop();
+  }
+}
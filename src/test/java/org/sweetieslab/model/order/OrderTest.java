@@ -0,0 +1,106 @@
+package org.sweetieslab.model.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sweetieslab.model.order.id.RandomOrderIdGenerator;
+import org.sweetieslab.model.order.validator.AddressValidator;
+
+class OrderTest {
+
+  private Order order;
+
+  @BeforeEach
+  void setUp() {
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+    order = new Order(new Address.Builder().building("1").room("1").build());
+  }
+
+  @Test
+  void testNewOrderIsOpen() {
+    assertEquals(OrderStatus.OPEN, order.getStatus());
+    assertTrue(order.beginMutation());
+    order.endMutation();
+  }
+
+  @Test
+  void testTransitionOnlyFromExpectedStatus() {
+    assertFalse(order.transition(OrderStatus.COMPLETED, OrderStatus.PREPARING));
+    assertTrue(order.transition(OrderStatus.OPEN, OrderStatus.COMPLETED));
+    assertFalse(order.transition(OrderStatus.OPEN, OrderStatus.CANCELLED));
+    assertFalse(order.beginMutation());
+    assertEquals(OrderStatus.COMPLETED, order.getStatus());
+  }
+
+  @Test
+  void testTransitionWaitsForInFlightMutation() throws Exception {
+    assertTrue(order.beginMutation());
+    CompletableFuture<Boolean> completion = CompletableFuture.supplyAsync(
+        () -> order.transition(OrderStatus.OPEN, OrderStatus.COMPLETED));
+    Thread.sleep(50);
+    assertFalse(completion.isDone());
+
+    order.endMutation();
+
+    assertTrue(completion.get(5, TimeUnit.SECONDS));
+    assertEquals(OrderStatus.COMPLETED, order.getStatus());
+  }
+
+  @Test
+  void testMutationCountSaturatesWithoutTouchingStatus() throws Exception {
+    for (int i = 0; i < 0xFFFF; i++) {
+      assertTrue(order.beginMutation());
+    }
+    CompletableFuture<Boolean> mutation = CompletableFuture.supplyAsync(order::beginMutation);
+    Thread.sleep(50);
+    assertFalse(mutation.isDone());
+    assertEquals(OrderStatus.OPEN, order.getStatus());
+
+    order.endMutation();
+
+    assertTrue(mutation.get(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 0xFFFF; i++) {
+      order.endMutation();
+    }
+    assertThrows(IllegalStateException.class, order::endMutation);
+    assertTrue(order.transition(OrderStatus.OPEN, OrderStatus.COMPLETED));
+  }
+
+  @Test
+  void testTransitionRecordsTimestamps() {
+    long created = order.getCreatedNanos();
+    assertEquals(created, order.getTransitionNanos(OrderStatus.OPEN));
+    assertEquals(0, order.getTransitionNanos(OrderStatus.COMPLETED));
+
+    assertTrue(order.transition(OrderStatus.OPEN, OrderStatus.COMPLETED));
+    assertTrue(order.transition(OrderStatus.COMPLETED, OrderStatus.OPEN));
+
+    assertTrue(order.getTransitionNanos(OrderStatus.COMPLETED) >= created);
+    assertEquals(created, order.getCreatedNanos());
+  }
+
+  @Test
+  void testIdGeneratorIsPluggable() {
+    UUID id = new UUID(1L, 2L);
+    Order.setIdGenerator(() -> id);
+    try {
+      assertEquals(id, new Order(new Address.Builder().building("1").room("1").build()).getId());
+    } finally {
+      Order.setIdGenerator(new RandomOrderIdGenerator());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.sweetieslab.model.order.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class OrderIdGeneratorTest {
+
+  static Stream<OrderIdGenerator> generators() {
+    return Stream.of(new RandomOrderIdGenerator(), new TimeOrderedOrderIdGenerator(),
+        new SequentialOrderIdGenerator(42L, 16));
+  }
+
+  @ParameterizedTest
+  @MethodSource("generators")
+  void testIdsAreUniqueAcrossThreads(OrderIdGenerator generator) {
+    Set<UUID> ids = ConcurrentHashMap.newKeySet();
+    CompletableFuture.allOf(IntStream.range(0, 8)
+        .mapToObj(i -> CompletableFuture.runAsync(() -> {
+          for (int j = 0; j < 10_000; j++) {
+            ids.add(generator.nextId());
+          }
+        }))
+        .toArray(CompletableFuture[]::new)).join();
+
+    assertEquals(80_000, ids.size());
+  }
+
+  @Test
+  void testTimeOrderedIdsAreVersion7AndMonotonicPerThread() {
+    TimeOrderedOrderIdGenerator generator = new TimeOrderedOrderIdGenerator(() -> 1_000L);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      ids.add(generator.nextId());
+    }
+
+    for (int i = 0; i < ids.size(); i++) {
+      UUID id = ids.get(i);
+      assertEquals(7, id.version());
+      assertEquals(2, id.variant());
+      if (i > 0) {
+        assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(),
+            id.getMostSignificantBits()) < 0);
+      }
+    }
+    assertEquals(1_000L, ids.get(0).getMostSignificantBits() >>> 16);
+    assertEquals(1_002L, ids.get(ids.size() - 1).getMostSignificantBits() >>> 16);
+  }
+
+  @Test
+  void testSequentialIdsCarryNodeAndCounter() {
+    SequentialOrderIdGenerator generator = new SequentialOrderIdGenerator(7L, 4);
+
+    for (long i = 0; i < 10; i++) {
+      UUID id = generator.nextId();
+      assertEquals(7L, id.getMostSignificantBits());
+      assertEquals(i, id.getLeastSignificantBits());
+    }
+  }
+}
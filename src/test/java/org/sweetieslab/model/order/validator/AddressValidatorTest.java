@@ -4,8 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.sweetieslab.model.order.Address;
@@ -62,4 +65,31 @@ class AddressValidatorTest {
     Address address = new Address.Builder().building("BuildingA").room("Room1").build();
     assertDoesNotThrow(() -> addressValidator.validate(address));
   }
-}
\ No newline at end of file
+
+  @Test
+  void testValidateAppliesOverriddenRules() {
+    AddressValidator validator = new AddressValidator() {
+      @Override
+      public List<Consumer<Address>> getRules() {
+        List<Consumer<Address>> rules = new ArrayList<>(AddressValidator.super.getRules());
+        rules.add(address -> {
+          if (address.getRoom().equals("Room2")) {
+            throw new AddressValidationException("Invalid address: room closed");
+          }
+        });
+        return rules;
+      }
+
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return addressValidator.getValidBuildingsVsRooms();
+      }
+    };
+    Address.setValidator(validator);
+
+    AddressValidationException exception = assertThrows(AddressValidationException.class,
+        () -> new Address.Builder().building("BuildingA").room("Room2").build());
+    assertEquals("Invalid address: room closed", exception.getMessage());
+    assertDoesNotThrow(() -> new Address.Builder().building("BuildingA").room("Room1").build());
+  }
+}
@@ -0,0 +1,72 @@
+package org.sweetieslab.model.order.validator;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.validator.exception.AddressValidationException;
+
+class CompiledAddressValidatorTest {
+
+  private CompiledAddressValidator addressValidator;
+
+  @BeforeEach
+  void setUp() {
+    addressValidator = new CompiledAddressValidator(Map.of(
+        "BuildingA", Set.of("Room1", "Room2"),
+        "BuildingB", Set.of("Room3", "Room4")
+    ));
+    Address.setValidator(addressValidator);
+  }
+
+  private static void assertInvalid(String message, String building, String room) {
+    AddressValidationException exception = assertThrows(AddressValidationException.class,
+        () -> new Address.Builder().building(building).room(room).build());
+    assertEquals(message, exception.getMessage());
+  }
+
+  @Test
+  void testMessagesMatchDefaultValidator() {
+    assertInvalid("Invalid address: building not set", "", "Room1");
+    assertInvalid("Invalid address: building not set", null, "Room1");
+    assertInvalid("Invalid address: room not set", "BuildingA", " ");
+    assertInvalid("Invalid address: building not found", "InvalidBuilding", "Room1");
+    assertInvalid("Invalid address: room not found", "BuildingA", "Room3");
+  }
+
+  @Test
+  void testValidAddress() {
+    Address address = new Address.Builder().building("BuildingB").room("Room4").build();
+    assertDoesNotThrow(() -> addressValidator.validate(address));
+    assertEquals(Set.of("Room3", "Room4"),
+        addressValidator.getValidBuildingsVsRooms().get("BuildingB"));
+  }
+
+  @Test
+  void testValidateAllLargeBatch() {
+    Set<String> rooms = new HashSet<>();
+    for (int i = 0; i < 1_000; i++) {
+      rooms.add(String.valueOf(i));
+    }
+    CompiledAddressValidator validator = new CompiledAddressValidator(Map.of("1", rooms));
+    Address.setValidator(validator);
+    List<Address> addresses = new ArrayList<>();
+    for (int i = 0; i < 2 * AddressValidator.PARALLEL_THRESHOLD; i++) {
+      addresses.add(new Address.Builder().building("1").room(String.valueOf(i % 1_000)).build());
+    }
+    assertDoesNotThrow(() -> validator.validateAll(addresses));
+
+    AddressValidator stricter = new CompiledAddressValidator(Map.of("1", Set.of("1")));
+    AddressValidationException exception = assertThrows(AddressValidationException.class,
+        () -> stricter.validateAll(addresses));
+    assertEquals("Invalid address: room not found", exception.getMessage());
+  }
+}
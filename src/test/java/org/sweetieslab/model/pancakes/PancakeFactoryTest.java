@@ -1,7 +1,10 @@
 package org.sweetieslab.model.pancakes;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.EnumMap;
 import org.junit.jupiter.api.Test;
@@ -87,4 +90,41 @@ class PancakeFactoryTest {
     assertEquals(50, ingredients.get(Ingredient.FLOUR));
     assertEquals(100, ingredients.get(Ingredient.MILK));
   }
-}
\ No newline at end of file
+
+  @Test
+  void testGetPancakeRecipeInternsEqualIngredients() {
+    EnumMap<Ingredient, Integer> ingredients = new EnumMap<>(Ingredient.class);
+    ingredients.put(Ingredient.FLOUR, 100);
+    ingredients.put(Ingredient.EGG, 1);
+    ingredients.put(Ingredient.MILK, 200);
+    ingredients.put(Ingredient.MILK_CHOCOLATE, 50);
+
+    PancakeRecipe pancake = PancakeFactory.getPancakeRecipe(ingredients);
+    assertSame(PancakeFactory.getMilkChocolatePancakeRecipe(), pancake);
+    assertSame(pancake, PancakeFactory.getPancakeRecipe(pancake.getId()));
+
+    ingredients.put(Ingredient.HONEY, 5);
+    assertEquals(4, pancake.getIngredients().size());
+    PancakeRecipe honeyPancake = PancakeFactory.getPancakeRecipe(ingredients);
+    assertNotEquals(pancake, honeyPancake);
+    assertNotEquals(pancake.getId(), honeyPancake.getId());
+    assertEquals(5, honeyPancake.getQuantity(Ingredient.HONEY));
+  }
+
+  @Test
+  void testGetPancakeRecipeByUnknownId() {
+    int unknownId = PancakeFactory.getPancakeRecipesCount() + 1;
+    assertThrows(IllegalStateException.class, () -> PancakeFactory.getPancakeRecipe(unknownId));
+  }
+
+  @Test
+  void testPublicConstructorSharesInternedId() {
+    EnumMap<Ingredient, Integer> ingredients =
+        PancakeFactory.getDarkChocolatePancakeRecipe().getIngredients();
+
+    PancakeRecipe pancake = new PancakeRecipe(ingredients);
+    assertEquals(PancakeFactory.getDarkChocolatePancakeRecipe(), pancake);
+    assertEquals(PancakeFactory.getDarkChocolatePancakeRecipe().getId(), pancake.getId());
+    assertEquals(PancakeFactory.getDarkChocolatePancakeRecipe().toString(), pancake.toString());
+  }
+}
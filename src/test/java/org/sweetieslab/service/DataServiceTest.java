@@ -0,0 +1,276 @@
+package org.sweetieslab.service;
+
+import static java.util.Collections.frequency;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderNotFoundException;
+import org.sweetieslab.service.exception.OrderStateException;
+import org.sweetieslab.service.exception.OrderUpdateException;
+import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+
+class DataServiceTest {
+
+  @BeforeAll
+  static void setUpValidator() {
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+  }
+
+  static Stream<Supplier<DataService>> dataServices() {
+    return Stream.of(ConcurrentMapDataService::new, RecipeIndexedDataService::new,
+        OffHeapDataService::new);
+  }
+
+  private static Order storedOrder(DataService dataService) {
+    return dataService.addOrder(TestOrders.newOrder());
+  }
+
+  @ParameterizedTest
+  @MethodSource("dataServices")
+  void testAddAndRemovePancakes(Supplier<DataService> factory) {
+    DataService dataService = factory.get();
+    Order order = storedOrder(dataService);
+    UUID orderId = order.getId();
+    PancakeRecipe milkChocolate = PancakeFactory.getMilkChocolatePancakeRecipe();
+    PancakeRecipe darkChocolate = PancakeFactory.getDarkChocolatePancakeRecipe();
+
+    assertEquals(order, dataService.getOrder(orderId));
+    assertEquals(OrderStatus.OPEN, dataService.getOrder(orderId).getStatus());
+    assertTrue(dataService.orderIsEmpty(orderId));
+
+    dataService.addPancakes(milkChocolate, orderId, 3);
+    dataService.addPancakes(darkChocolate, orderId, 2);
+    dataService.addPancakes(milkChocolate, orderId, 1);
+    assertEquals(6, dataService.getPancakesCount(orderId));
+    assertFalse(dataService.orderIsEmpty(orderId));
+
+    dataService.removePancakes(darkChocolate, orderId, 5);
+    dataService.removePancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), orderId, 1);
+    dataService.removePancakes(milkChocolate, orderId, 1);
+    List<String> descriptions = dataService.getPancakesDescriptions(orderId);
+    assertEquals(3, descriptions.size());
+    assertEquals(3, frequency(descriptions, milkChocolate.toString()));
+    assertEquals(3, dataService.getPancakesCount(orderId));
+
+    dataService.removePancakes(milkChocolate, orderId, 3);
+    assertTrue(dataService.orderIsEmpty(orderId));
+    assertEquals(0, dataService.getPancakesCount(orderId));
+  }
+
+  @ParameterizedTest
+  @MethodSource("dataServices")
+  void testAddOrderWithPancakes(Supplier<DataService> factory) {
+    DataService dataService = factory.get();
+    Order order = new Order(new Address.Builder().building("1").room("1").build());
+    PancakeRecipe milkChocolate = PancakeFactory.getMilkChocolatePancakeRecipe();
+
+    dataService.addOrder(order, Map.of(milkChocolate, 2,
+        PancakeFactory.getDarkChocolatePancakeRecipe(), 1));
+
+    assertEquals(order, dataService.getOrder(order.getId()));
+    assertEquals(3, dataService.getPancakesCount(order.getId()));
+    assertEquals(2, frequency(dataService.getPancakesDescriptions(order.getId()),
+        milkChocolate.toString()));
+    assertEquals(Map.of(milkChocolate, 2, PancakeFactory.getDarkChocolatePancakeRecipe(), 1),
+        dataService.getPancakes(order.getId()));
+  }
+
+  @ParameterizedTest
+  @MethodSource("dataServices")
+  void testInvalidCounts(Supplier<DataService> factory) {
+    DataService dataService = factory.get();
+    UUID orderId = storedOrder(dataService).getId();
+    PancakeRecipe pancake = PancakeFactory.getMilkChocolatePancakeRecipe();
+
+    assertEquals("Invalid count for adding: 0", assertThrows(OrderUpdateException.class,
+        () -> dataService.addPancakes(pancake, orderId, 0)).getMessage());
+    assertEquals("Invalid count for removal: -1", assertThrows(OrderUpdateException.class,
+        () -> dataService.removePancakes(pancake, orderId, -1)).getMessage());
+  }
+
+  @ParameterizedTest
+  @MethodSource("dataServices")
+  void testRemovedOrderIsGone(Supplier<DataService> factory) {
+    DataService dataService = factory.get();
+    Order order = storedOrder(dataService);
+    UUID orderId = order.getId();
+    dataService.addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), orderId, 1);
+
+    assertEquals(order, dataService.removeOrder(orderId));
+
+    assertThrows(OrderNotFoundException.class, () -> dataService.getOrder(orderId));
+    assertThrows(PancakesNotFoundForOrder.class, () -> dataService.getPancakesCount(orderId));
+    assertThrows(PancakesNotFoundForOrder.class, () -> dataService.addPancakes(
+        PancakeFactory.getMilkChocolatePancakeRecipe(), orderId, 1));
+    assertNull(dataService.removeOrder(orderId));
+  }
+
+  @ParameterizedTest
+  @MethodSource("dataServices")
+  void testConcurrentAddDoesNotResurrectRemovedOrder(Supplier<DataService> factory)
+      throws Exception {
+    DataService dataService = factory.get();
+    PancakeRecipe pancake = PancakeFactory.getMilkChocolatePancakeRecipe();
+    for (int i = 0; i < 100; i++) {
+      UUID orderId = storedOrder(dataService).getId();
+      CompletableFuture<Void> adder = CompletableFuture.runAsync(() -> {
+        try {
+          while (true) {
+            dataService.addPancakes(pancake, orderId, 1);
+          }
+        } catch (PancakesNotFoundForOrder e) {
+          // the order was removed concurrently
+        }
+      });
+      dataService.removeOrder(orderId);
+      adder.get(10, TimeUnit.SECONDS);
+
+      assertThrows(PancakesNotFoundForOrder.class, () -> dataService.getPancakesCount(orderId));
+      assertThrows(OrderNotFoundException.class, () -> dataService.getOrder(orderId));
+    }
+  }
+
+  @Test
+  void testConcurrentMapCounters() {
+    ConcurrentMapDataService dataService = new ConcurrentMapDataService();
+    PancakeRecipe pancake = PancakeFactory.getDarkChocolatePancakeRecipe();
+    UUID orderId = storedOrder(dataService).getId();
+    dataService.addPancakes(pancake, orderId, 3);
+    dataService.removePancakes(pancake, orderId, 5);
+    assertThrows(OrderUpdateException.class, () -> dataService.addPancakes(pancake, orderId, 0));
+    dataService.removeOrder(orderId);
+    assertThrows(OrderNotFoundException.class, () -> dataService.getOrder(orderId));
+
+    assertEquals(0, dataService.getStoredOrders());
+    assertEquals(3, dataService.getPancakesAdded());
+    assertEquals(3, dataService.getPancakesRemoved());
+  }
+
+  @Test
+  void testOffHeapOverflowLinesAndResize() {
+    OffHeapDataService dataService = new OffHeapDataService.Builder()
+        .segments(2)
+        .segmentCapacity(2)
+        .build();
+    Set<PancakeRecipe> recipes = new HashSet<>();
+    while (recipes.size() < 20) {
+      recipes.add(PancakeFactory.getRandomPancakeRecipe());
+    }
+    List<UUID> orderIds = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      orderIds.add(storedOrder(dataService).getId());
+    }
+    for (UUID orderId : orderIds) {
+      recipes.forEach(recipe -> dataService.addPancakes(recipe, orderId, 2));
+    }
+    PancakeRecipe removed = recipes.iterator().next();
+    for (UUID orderId : orderIds) {
+      dataService.removePancakes(removed, orderId, 2);
+    }
+
+    Map<PancakeRecipe, Integer> expected = new HashMap<>();
+    recipes.stream().filter(recipe -> recipe != removed)
+        .forEach(recipe -> expected.put(recipe, 2));
+    for (UUID orderId : orderIds) {
+      assertEquals(expected, dataService.getPancakes(orderId));
+      assertEquals(38, dataService.getPancakesCount(orderId));
+    }
+    orderIds.forEach(dataService::removeOrder);
+    UUID orderId = storedOrder(dataService).getId();
+    dataService.addPancakes(removed, orderId, 1);
+    assertEquals(Map.of(removed, 1), dataService.getPancakes(orderId));
+  }
+
+  @Test
+  void testOffHeapViewsShareStoredLifecycle() {
+    OffHeapDataService dataService = new OffHeapDataService();
+    Order order = new Order(new Address.Builder().building("1").room("1").build());
+    Order stored = dataService.addOrder(order);
+    Order view = dataService.getOrder(order.getId());
+
+    assertNotSame(stored, view);
+    assertEquals(order, view);
+    assertEquals("1", view.getBuilding());
+    assertEquals("1", view.getRoom());
+    assertEquals(order.getCreatedNanos(), view.getCreatedNanos());
+
+    assertTrue(stored.transition(OrderStatus.OPEN, OrderStatus.COMPLETED));
+    assertEquals(OrderStatus.COMPLETED, view.getStatus());
+    assertEquals(stored.getTransitionNanos(OrderStatus.COMPLETED),
+        view.getTransitionNanos(OrderStatus.COMPLETED));
+    assertFalse(view.beginMutation());
+    assertTrue(view.transition(OrderStatus.COMPLETED, OrderStatus.CANCELLED));
+
+    Order removed = dataService.removeOrder(order.getId());
+    assertEquals(OrderStatus.CANCELLED, removed.getStatus());
+    assertEquals(OrderStatus.CANCELLED, view.getStatus());
+    assertFalse(view.transition(OrderStatus.COMPLETED, OrderStatus.OPEN));
+  }
+
+  @Test
+  void testOffHeapRejectsSegmentsBeyondBufferLimit() {
+    OffHeapDataService.Builder builder = new OffHeapDataService.Builder().segmentCapacity(1 << 24);
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  void testOffHeapCloseReleasesBuffers() {
+    OffHeapDataService dataService = new OffHeapDataService();
+    UUID orderId = storedOrder(dataService).getId();
+    assertTrue(dataService.getOffHeapBytes() > 0);
+
+    dataService.close();
+
+    assertEquals(0, dataService.getOffHeapBytes());
+    assertNull(dataService.findOrder(orderId));
+    assertThrows(IllegalStateException.class, () -> storedOrder(dataService));
+  }
+
+  @Test
+  void testOffHeapStoreDrivesOrderLifecycle() {
+    ManagementService managementService = new ManagementService(
+        new CollectionsOperationsService(), new OffHeapDataService());
+    PancakeRecipe pancake = PancakeFactory.getMilkChocolatePancakeRecipe();
+    Order order = managementService.submitOrder(new OrderDraft(
+        new Address.Builder().building("1").room("1").build()).addPancakes(pancake, 2), true);
+
+    assertEquals(OrderStatus.COMPLETED, managementService.getOrder(order.getId()).getStatus());
+    assertThrows(OrderStateException.class,
+        () -> managementService.addPancakes(pancake, order.getId(), 1));
+    assertEquals(order, managementService.prepareOrder());
+    assertEquals(order, managementService.deliverOrder());
+    assertEquals(OrderStatus.OUT_FOR_DELIVERY, order.getStatus());
+    managementService.close();
+  }
+}
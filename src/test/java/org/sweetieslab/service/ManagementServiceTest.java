@@ -8,23 +8,33 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.sweetieslab.model.order.Address;
 import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
 import org.sweetieslab.model.order.validator.AddressValidator;
 import org.sweetieslab.model.order.validator.exception.AddressValidationException;
 import org.sweetieslab.model.order.validator.exception.NotSetAddressValidatorException;
 import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.service.exception.OperationsServiceException;
 import org.sweetieslab.service.exception.OrderNotFoundException;
+import org.sweetieslab.service.exception.OrderRejectedException;
+import org.sweetieslab.service.exception.OrderStateException;
 import org.sweetieslab.service.exception.OrderUpdateException;
 import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+import org.sweetieslab.service.journal.LifecycleJournal;
+import org.sweetieslab.service.metrics.LatencySnapshot;
+import org.sweetieslab.service.metrics.LifecycleStage;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -45,6 +55,11 @@ public class ManagementServiceTest {
   private final static String DARK_CHOCOLATE_PANCAKE_DESCRIPTION = "Delicious pancake with dark chocolate (50), flour (100), egg (1), milk (150)!";
   private final static String MILK_CHOCOLATE_HAZELNUTS_PANCAKE_DESCRIPTION = "Delicious pancake with milk chocolate (50), flour (100), egg (1), milk (200), hazelnut (50)!";
 
+  @AfterAll
+  public void tearDown() {
+    service.close();
+  }
+
   @Test
   @org.junit.jupiter.api.Order(0)
   public void GivenOrderDoesNotExist_WhenCreatingOrder_ThenOrderNotCreatedWithNoValidatorSet_Test() {
@@ -330,6 +345,34 @@ public class ManagementServiceTest {
     // tear down
   }
 
+  @Test
+  @org.junit.jupiter.api.Order(42)
+  public void GivenOrderCompleted_WhenUpdatingOrCancellingOrder_ThenRejected_Test() {
+    // setup
+
+    // exercise
+    OrderStateException addException =
+        assertThrows(
+            OrderStateException.class,
+            () -> {
+              service.addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), order.getId(),
+                  1);
+            });
+    assertThrows(
+        OrderStateException.class,
+        () -> {
+          service.cancelOrder(order);
+        });
+
+    // verify
+    assertEquals("Order " + order.getId() + " is COMPLETED, expected OPEN",
+        addException.getMessage());
+    assertEquals(OrderStatus.COMPLETED, order.getStatus());
+    assertEquals(3, service.viewOrder(order.getId()).size());
+
+    // tear down
+  }
+
   @Test
   @org.junit.jupiter.api.Order(50)
   public void GivenOrderExists_WhenPreparingOrder_ThenOrderPrepared_Test() {
@@ -342,6 +385,7 @@ public class ManagementServiceTest {
 
     assertNotNull(prepared);
     assertEquals(order.getId(), prepared.getId());
+    assertEquals(OrderStatus.PREPARED, prepared.getStatus());
 
     Set<UUID> completedOrders = service.listCompletedOrders();
     assertFalse(completedOrders.contains(order.getId()));
@@ -374,11 +418,92 @@ public class ManagementServiceTest {
     });
 
     assertEquals(order.getId(), deliveredOrder.getId());
+    assertEquals(OrderStatus.OUT_FOR_DELIVERY, deliveredOrder.getStatus());
 
     // tear down
     order = null;
   }
 
+  @Test
+  @org.junit.jupiter.api.Order(61)
+  public void GivenOrdersDelivered_WhenQueryingLatencies_ThenEveryStageRecorded_Test() {
+    // setup
+
+    // exercise
+    Map<LifecycleStage, LatencySnapshot> latencies = service.getLatencies();
+
+    // verify
+    assertEquals(Set.of(LifecycleStage.values()), latencies.keySet());
+    latencies.values().forEach(snapshot -> assertTrue(snapshot.count() > 0));
+    LatencySnapshot endToEnd = service.getLatency(LifecycleStage.END_TO_END);
+    assertTrue(endToEnd.max() >= latencies.get(LifecycleStage.COOK).max());
+    assertTrue(endToEnd.max() >= latencies.get(LifecycleStage.COMPLETED_QUEUE).max());
+    assertTrue(endToEnd.p50() <= endToEnd.p99());
+
+    // tear down
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(62)
+  public void GivenOrdersDelivered_WhenReadingCounters_ThenCountersMatchLifecycle_Test() {
+    // setup
+
+    // exercise
+    long delivered = service.getOrdersDelivered();
+
+    // verify
+    assertEquals(service.getLatency(LifecycleStage.END_TO_END).count(), delivered);
+    assertTrue(service.getOrdersPrepared() >= delivered);
+    assertTrue(service.getOrdersCompleted() >= service.getOrdersPrepared());
+    assertEquals(service.getOrdersCreated() - service.getOrdersCancelled() - delivered,
+        service.getInFlightOrders());
+    assertTrue(service.getExceptions().containsKey("OrderStateException"));
+
+    // tear down
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(63)
+  public void GivenMissingOrder_WhenAddingPancakes_ThenFailureCountedOnce_Test() {
+    // setup
+    ConcurrentMapDataService dataService = new ConcurrentMapDataService();
+    ManagementService countingService = new ManagementService(new CollectionsOperationsService(),
+        dataService);
+
+    // exercise
+    assertThrows(PancakesNotFoundForOrder.class, () -> countingService.addPancakes(
+        PancakeFactory.getDarkChocolatePancakeRecipe(), UUID.randomUUID(), 1));
+
+    // verify
+    assertEquals(Map.of("PancakesNotFoundForOrder", 1L), countingService.getExceptions());
+
+    // tear down
+    countingService.close();
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(64)
+  public void GivenAnyDataService_WhenLookupFails_ThenFailureCountedByManagementService_Test() {
+    for (DataService dataService : List.of(new ConcurrentMapDataService(),
+        new RecipeIndexedDataService(), new OffHeapDataService())) {
+      // setup
+      ManagementService countingService = new ManagementService(
+          new CollectionsOperationsService(), dataService);
+
+      // exercise
+      assertThrows(OrderNotFoundException.class, () -> countingService.getOrder(UUID.randomUUID()));
+      assertThrows(RuntimeException.class, () -> countingService.viewOrder(UUID.randomUUID()));
+
+      // verify
+      assertEquals(2L, countingService.getExceptions().values().stream()
+          .mapToLong(Long::longValue).sum());
+      assertEquals(1L, countingService.getExceptions().get("OrderNotFoundException"));
+
+      // tear down
+      countingService.close();
+    }
+  }
+
   @Test
   @org.junit.jupiter.api.Order(70)
   public void GivenOrderExists_WhenCancellingOrder_ThenOrderAndPancakesRemoved_Test() {
@@ -404,6 +529,215 @@ public class ManagementServiceTest {
     order = null;
   }
 
+  @Test
+  @org.junit.jupiter.api.Order(80)
+  public void GivenOrderDraft_WhenSubmittingOrder_ThenOrderCreatedWithAllPancakes_Test() {
+    // setup
+    OrderDraft draft = new OrderDraft(new Address.Builder().building("10").room("20").build())
+        .addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), 3)
+        .addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), 2)
+        .removePancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), 1)
+        .removePancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), 2)
+        .addPancakes(PancakeFactory.getMilkChocolateHazelnutPancakeRecipe(), 1);
+
+    // exercise
+    order = service.submitOrder(draft);
+
+    // verify
+    List<String> ordersPancakes = service.viewOrder(order.getId());
+    assertEquals(2, frequency(ordersPancakes, MILK_CHOCOLATE_PANCAKE_DESCRIPTION));
+    assertEquals(1, frequency(ordersPancakes, MILK_CHOCOLATE_HAZELNUTS_PANCAKE_DESCRIPTION));
+    assertEquals(3, ordersPancakes.size());
+    assertEquals(OrderStatus.OPEN, order.getStatus());
+
+    // tear down
+    service.cancelOrder(order);
+    order = null;
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(81)
+  public void GivenEmptyOrderDraft_WhenSubmittingAndCompletingOrder_ThenOrderCancelled_Test() {
+    // setup
+    OrderDraft draft = new OrderDraft(new Address.Builder().building("10").room("20").build())
+        .addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), 1)
+        .removePancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), 1);
+
+    // exercise
+    Order emptyOrder = service.submitOrder(draft, true);
+
+    // verify
+    assertEquals(OrderStatus.CANCELLED, emptyOrder.getStatus());
+    assertFalse(service.listCompletedOrders().contains(emptyOrder.getId()));
+    assertThrows(OrderNotFoundException.class, () -> {
+      service.getOrder(emptyOrder.getId());
+    });
+
+    // tear down
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(82)
+  public void GivenOrderDraft_WhenSubmittingAndCompletingOrder_ThenOrderCompleted_Test() {
+    // setup
+    OrderDraft draft = new OrderDraft(new Address.Builder().building("10").room("1").build())
+        .addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), 2);
+
+    // exercise
+    order = service.submitOrder(draft, true);
+
+    // verify
+    assertEquals(OrderStatus.COMPLETED, order.getStatus());
+    assertTrue(service.listCompletedOrders().contains(order.getId()));
+    assertEquals(order.getId(), service.prepareOrder().getId());
+    assertEquals(order.getId(), service.deliverOrder().getId());
+
+    // tear down
+    order = null;
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(90)
+  public void GivenFullCompletedQueue_WhenCompletingOrder_ThenOrderRejectedAndStaysOpen_Test() {
+    // setup
+    ManagementService boundedService = new ManagementService(
+        new CollectionsOperationsService.Builder().capacity(1)
+            .overloadPolicy(OverloadPolicy.REJECT).build(),
+        new ConcurrentMapDataService());
+    Address address = new Address.Builder().building("10").room("1").build();
+    OrderDraft draft = new OrderDraft(address)
+        .addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), 1);
+    Order accepted = boundedService.submitOrder(draft);
+    Order rejected = boundedService.submitOrder(draft);
+
+    // exercise
+    Backpressure backpressure = boundedService.completeOrder(accepted);
+
+    // verify
+    assertEquals(Backpressure.SATURATED, backpressure);
+    assertThrows(OrderRejectedException.class, () -> boundedService.completeOrder(rejected));
+    assertEquals(OrderStatus.OPEN, rejected.getStatus());
+    assertEquals(Set.of(accepted.getId()), boundedService.listCompletedOrders());
+
+    // tear down
+    boundedService.cancelOrder(rejected);
+    boundedService.close();
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(83)
+  public void GivenOrderDraft_WhenAddingTooManyPancakes_ThenCantAddBecauseOfOverflow_Test() {
+    // setup
+    OrderDraft draft = new OrderDraft(new Address.Builder().building("10").room("1").build())
+        .addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), Integer.MAX_VALUE);
+
+    // exercise
+    OrderUpdateException expectedException = assertThrows(OrderUpdateException.class,
+        () -> draft.addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), 1));
+
+    // verify
+    assertEquals("Too many pancakes for adding: 1", expectedException.getMessage());
+    assertEquals(Integer.MAX_VALUE, draft.getPancakesCount());
+
+    // tear down
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(89)
+  public void GivenFullCompletedQueue_WhenInterruptedWhileBlocked_ThenOrderStaysOpen_Test() {
+    // setup
+    ManagementService boundedService = new ManagementService(
+        new CollectionsOperationsService.Builder().capacity(1).build(),
+        new ConcurrentMapDataService());
+    Address address = new Address.Builder().building("10").room("1").build();
+    OrderDraft draft = new OrderDraft(address)
+        .addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), 1);
+    Order accepted = boundedService.submitOrder(draft, true);
+    Order blocked = boundedService.submitOrder(draft);
+
+    // exercise
+    Thread.currentThread().interrupt();
+    try {
+      assertThrows(OperationsServiceException.class, () -> boundedService.completeOrder(blocked));
+    } finally {
+      Thread.interrupted();
+    }
+
+    // verify
+    assertEquals(OrderStatus.OPEN, blocked.getStatus());
+    assertEquals(Set.of(accepted.getId()), boundedService.listCompletedOrders());
+
+    // tear down
+    boundedService.cancelOrder(blocked);
+    boundedService.close();
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(91)
+  public void GivenFullCompletedQueue_WhenCompletingOrderWithShedding_ThenOldestCancelled_Test() {
+    // setup
+    ManagementService sheddingService = new ManagementService(
+        new CollectionsOperationsService.Builder().capacity(1)
+            .overloadPolicy(OverloadPolicy.SHED_OLDEST).build(),
+        new ConcurrentMapDataService());
+    Address address = new Address.Builder().building("10").room("1").build();
+    OrderDraft draft = new OrderDraft(address)
+        .addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), 1);
+    Order oldest = sheddingService.submitOrder(draft, true);
+
+    // exercise
+    Order newest = sheddingService.submitOrder(draft, true);
+
+    // verify
+    assertEquals(OrderStatus.CANCELLED, oldest.getStatus());
+    assertThrows(OrderNotFoundException.class, () -> sheddingService.getOrder(oldest.getId()));
+    assertEquals(Set.of(newest.getId()), sheddingService.listCompletedOrders());
+
+    // tear down
+    sheddingService.close();
+  }
+
+  @Test
+  @org.junit.jupiter.api.Order(92)
+  public void GivenSheddingAndRejection_WhenCompletingOrders_ThenJournalKeepsLifecycleOrder_Test() {
+    // setup
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    LifecycleJournal journal = new LifecycleJournal(LifecycleJournal.DEFAULT_CAPACITY,
+        entry -> events.add(entry.getType() + ":" + entry.getOrder().getId()));
+    ManagementService sheddingService = new ManagementService(
+        new CollectionsOperationsService.Builder().capacity(1)
+            .overloadPolicy(OverloadPolicy.SHED_OLDEST).build(),
+        new ConcurrentMapDataService(), journal);
+    ManagementService rejectingService = new ManagementService(
+        new CollectionsOperationsService.Builder().capacity(1)
+            .overloadPolicy(OverloadPolicy.REJECT).build(),
+        new ConcurrentMapDataService(), journal);
+    Address address = new Address.Builder().building("10").room("1").build();
+    OrderDraft draft = new OrderDraft(address)
+        .addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), 1);
+    Order oldest = sheddingService.submitOrder(draft, true);
+    rejectingService.submitOrder(draft, true);
+    Order rejected = rejectingService.submitOrder(draft);
+
+    // exercise
+    sheddingService.submitOrder(draft, true);
+    assertThrows(OrderRejectedException.class, () -> rejectingService.completeOrder(rejected));
+    journal.flush();
+
+    // verify
+    assertEquals(List.of("SUBMITTED:" + oldest.getId(), "COMPLETED:" + oldest.getId(),
+            "CANCELLED:" + oldest.getId()),
+        events.stream().filter(event -> event.endsWith(oldest.getId().toString())).toList());
+    assertEquals(List.of("SUBMITTED:" + rejected.getId(), "COMPLETED:" + rejected.getId(),
+            "REOPENED:" + rejected.getId()),
+        events.stream().filter(event -> event.endsWith(rejected.getId().toString())).toList());
+    assertEquals(OrderStatus.OPEN, rejected.getStatus());
+
+    // tear down
+    rejectingService.cancelOrder(rejected);
+    journal.close();
+  }
+
   private void addPancakes() {
     service.addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), order.getId(), 3);
     service.addPancakes(PancakeFactory.getDarkChocolatePancakeRecipe(), order.getId(), 3);
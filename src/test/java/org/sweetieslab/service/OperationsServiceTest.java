@@ -0,0 +1,501 @@
+package org.sweetieslab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.sweetieslab.service.TestOrders.newOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OperationsServiceException;
+import org.sweetieslab.service.exception.OrderRejectedException;
+import org.sweetieslab.service.exception.PancakesNotFoundForOrder;
+
+class OperationsServiceTest {
+
+  @BeforeAll
+  static void setUpValidator() {
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+  }
+
+  static Stream<Supplier<OperationsService>> operationsServices() {
+    return Stream.of(
+        () -> new CollectionsOperationsService(LinkedBlockingQueue::new, 0),
+        () -> new RingBufferOperationsService(4, 0, WaitStrategy.BUSY_SPIN),
+        () -> new RingBufferOperationsService(4, 0, WaitStrategy.YIELD),
+        () -> new RingBufferOperationsService(4, 0, WaitStrategy.PARK),
+        () -> new WorkStealingOperationsService.Builder().chefs(1).cookTimeMillis(0).build());
+  }
+
+  @ParameterizedTest
+  @MethodSource("operationsServices")
+  void testOrdersFlowThroughStagesInOrder(Supplier<OperationsService> factory) {
+    OperationsService operationsService = factory.get();
+    Order first = newOrder();
+    Order second = newOrder();
+    List<String> events = new ArrayList<>();
+    PreparationListener listener = new PreparationListener() {
+      @Override
+      public void preparationStarted(Order order) {
+        events.add("started " + order.getId());
+      }
+
+      @Override
+      public void orderPrepared(Order order) {
+        assertTrue(operationsService.listPreparedOrders().isEmpty()
+            || !operationsService.listPreparedOrders().contains(order.getId()));
+        events.add("prepared " + order.getId());
+      }
+
+      @Override
+      public void orderQueued(Order order) {
+        assertTrue(operationsService.listPreparedOrders().contains(order.getId()));
+        events.add("queued " + order.getId());
+      }
+    };
+
+    operationsService.completeOrder(first);
+    operationsService.completeOrder(second);
+    assertEquals(Set.of(first.getId(), second.getId()), operationsService.listCompletedOrders());
+
+    assertSame(first, operationsService.prepareOrder(listener));
+    assertEquals(Set.of(second.getId()), operationsService.listCompletedOrders());
+    assertEquals(Set.of(first.getId()), operationsService.listPreparedOrders());
+    assertEquals(List.of("started " + first.getId(), "prepared " + first.getId(),
+        "queued " + first.getId()), events);
+
+    assertSame(second, operationsService.prepareOrder(listener));
+    assertSame(first, operationsService.deliverOrder());
+    assertSame(second, operationsService.deliverOrder());
+    assertTrue(operationsService.listCompletedOrders().isEmpty());
+    assertTrue(operationsService.listPreparedOrders().isEmpty());
+  }
+
+  @ParameterizedTest
+  @MethodSource("operationsServices")
+  void testPagingVisitsEveryOrderOnce(Supplier<OperationsService> factory) {
+    OperationsService operationsService = factory.get();
+    List<Order> orders = List.of(newOrder(), newOrder(), newOrder());
+    orders.forEach(operationsService::completeOrder);
+
+    List<UUID> paged = new ArrayList<>();
+    OrderPage page = new OrderPage(List.of(), OrderPage.FIRST);
+    do {
+      page = operationsService.pageCompletedOrders(page.nextCursor(), 2);
+      paged.addAll(page.orders());
+    } while (page.hasNext());
+
+    assertEquals(3, paged.size());
+    assertEquals(operationsService.listCompletedOrders(), Set.copyOf(paged));
+    assertTrue(operationsService.pagePreparedOrders(OrderPage.FIRST, 2).orders().isEmpty());
+    assertThrows(IllegalArgumentException.class,
+        () -> operationsService.pageCompletedOrders(OrderPage.FIRST, 0));
+  }
+
+  @ParameterizedTest
+  @MethodSource("operationsServices")
+  void testZeroTimeoutReturnsImmediatelyWhenEmpty(Supplier<OperationsService> factory) {
+    OperationsService operationsService = factory.get();
+    long start = System.nanoTime();
+
+    assertEquals(null, operationsService.prepareOrder(order -> {
+    }, 0, TimeUnit.NANOSECONDS));
+    assertEquals(null, operationsService.deliverOrder(0, TimeUnit.NANOSECONDS));
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @ParameterizedTest
+  @MethodSource("operationsServices")
+  void testInterruptedWhileWaitingForOrder(Supplier<OperationsService> factory) {
+    OperationsService operationsService = factory.get();
+    Thread.currentThread().interrupt();
+    try {
+      assertThrows(OperationsServiceException.class, operationsService::deliverOrder);
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  void testBatchPreparesUpToBatchSizeInOneCycle() {
+    OperationsService operationsService = new CollectionsOperationsService.Builder()
+        .cookTimeMillis(0).batchSize(3).build();
+    List<Order> orders = List.of(newOrder(), newOrder(), newOrder(), newOrder());
+    orders.forEach(operationsService::completeOrder);
+    List<Order> started = new ArrayList<>();
+    List<Order> prepared = new ArrayList<>();
+    PreparationListener listener = new PreparationListener() {
+      @Override
+      public void preparationStarted(Order order) {
+        assertTrue(prepared.isEmpty());
+        started.add(order);
+      }
+
+      @Override
+      public void orderPrepared(Order order) {
+        prepared.add(order);
+      }
+    };
+
+    assertSame(orders.get(0), operationsService.prepareOrder(listener));
+    assertEquals(orders.subList(0, 3), started);
+    assertEquals(orders.subList(0, 3), prepared);
+    assertEquals(Set.of(orders.get(3).getId()), operationsService.listCompletedOrders());
+    assertEquals(3, operationsService.listPreparedOrders().size());
+    for (Order order : orders.subList(0, 3)) {
+      assertSame(order, operationsService.deliverOrder());
+    }
+  }
+
+  @Test
+  void testBatchListenerFailureDoesNotLoseRemainingOrders() {
+    OperationsService operationsService = new CollectionsOperationsService.Builder()
+        .cookTimeMillis(0).batchSize(3).build();
+    List<Order> orders = List.of(newOrder(), newOrder(), newOrder());
+    orders.forEach(operationsService::completeOrder);
+    List<Order> prepared = new ArrayList<>();
+    PreparationListener listener = new PreparationListener() {
+      @Override
+      public void preparationStarted(Order order) {
+        if (order == orders.get(0)) {
+          throw new IllegalStateException("start failed");
+        }
+      }
+
+      @Override
+      public void orderPrepared(Order order) {
+        if (order == orders.get(1)) {
+          throw new IllegalStateException("prepare failed");
+        }
+        prepared.add(order);
+      }
+    };
+
+    IllegalStateException failure = assertThrows(IllegalStateException.class,
+        () -> operationsService.prepareOrder(listener));
+    assertEquals("start failed", failure.getMessage());
+    assertEquals(1, failure.getSuppressed().length);
+    assertEquals(List.of(orders.get(2)), prepared);
+    assertEquals(Set.of(orders.get(2).getId()), operationsService.listPreparedOrders());
+    assertSame(orders.get(2), operationsService.deliverOrder());
+  }
+
+  @Test
+  void testBatchWaitsForWindowToFill() throws Exception {
+    OperationsService operationsService = new CollectionsOperationsService.Builder()
+        .cookTimeMillis(0).batchSize(2).batchWindowMillis(5_000).build();
+    Order first = newOrder();
+    Order second = newOrder();
+    operationsService.completeOrder(first);
+    CompletableFuture<Void> late = CompletableFuture.runAsync(() -> {
+      try {
+        TimeUnit.MILLISECONDS.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      operationsService.completeOrder(second);
+    });
+    List<Order> prepared = new ArrayList<>();
+
+    assertSame(first, operationsService.prepareOrder(prepared::add));
+    late.get();
+    assertEquals(List.of(first, second), prepared);
+  }
+
+  @Test
+  void testCapacityWithQueueFactoryRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new CollectionsOperationsService.Builder().queueFactory(LinkedBlockingQueue::new)
+            .capacity(10).build());
+  }
+
+  @Test
+  void testInvalidBatchSettingsRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new CollectionsOperationsService.Builder().batchSize(0).build());
+    assertThrows(IllegalArgumentException.class,
+        () -> new CollectionsOperationsService.Builder().batchWindowMillis(-1).build());
+  }
+
+  @Test
+  void testCoalescingCooksSameRecipeAcrossOrdersTogether() {
+    DataService dataService = new RecipeIndexedDataService();
+    OperationsService operationsService = new CoalescingOperationsService.Builder(dataService)
+        .cookTimeMillis(0).griddleCapacity(4).build();
+    PancakeRecipe milkChocolate = PancakeFactory.getMilkChocolatePancakeRecipe();
+    PancakeRecipe darkChocolate = PancakeFactory.getDarkChocolatePancakeRecipe();
+    Order first = newOrder();
+    Order second = newOrder();
+    Order third = newOrder();
+    dataService.addOrder(first, Map.of(milkChocolate, 2));
+    dataService.addOrder(second, Map.of(darkChocolate, 1, milkChocolate, 1));
+    dataService.addOrder(third, Map.of(milkChocolate, 1));
+    List.of(first, second, third).forEach(operationsService::completeOrder);
+    List<Order> prepared = new ArrayList<>();
+
+    assertSame(first, operationsService.prepareOrder(prepared::add));
+    assertEquals(List.of(first, third, second), prepared);
+    assertTrue(operationsService.listCompletedOrders().isEmpty());
+    assertEquals(Set.of(first.getId(), second.getId(), third.getId()),
+        operationsService.listPreparedOrders());
+  }
+
+  @Test
+  void testCoalescingFailureDoesNotLoseRemainingOrders() {
+    DataService dataService = new RecipeIndexedDataService();
+    OperationsService operationsService = new CoalescingOperationsService.Builder(dataService)
+        .cookTimeMillis(0).griddleCapacity(1).build();
+    PancakeRecipe milkChocolate = PancakeFactory.getMilkChocolatePancakeRecipe();
+    Order missing = newOrder();
+    Order failing = newOrder();
+    Order last = newOrder();
+    dataService.addOrder(failing, Map.of(milkChocolate, 1));
+    dataService.addOrder(last, Map.of(milkChocolate, 2));
+    List.of(missing, failing, last).forEach(operationsService::completeOrder);
+    List<Order> prepared = new ArrayList<>();
+
+    PancakesNotFoundForOrder failure = assertThrows(PancakesNotFoundForOrder.class,
+        () -> operationsService.prepareOrder(order -> {
+          if (order == failing) {
+            throw new IllegalStateException("prepare failed");
+          }
+          prepared.add(order);
+        }));
+    assertEquals(1, failure.getSuppressed().length);
+    assertEquals(List.of(last), prepared);
+    assertEquals(Set.of(last.getId()), operationsService.listPreparedOrders());
+  }
+
+  @Test
+  void testIdleChefStealsFromBusyChef() {
+    WorkStealingOperationsService operationsService = new WorkStealingOperationsService.Builder()
+        .chefs(2).cookTimeMillis(1).build();
+    Order first = newOrder();
+    Order second = newOrder();
+    operationsService.completeOrder(first);
+    operationsService.completeOrder(second);
+    assertEquals(1, operationsService.getQueuedOrders(0));
+    assertEquals(1, operationsService.getQueuedOrders(1));
+
+    PreparationListener listener = order -> {
+    };
+    assertSame(first, operationsService.prepareOrder(0, listener,
+        OperationsService.TIMEOUT, TimeUnit.SECONDS));
+    assertSame(second, operationsService.prepareOrder(0, listener,
+        OperationsService.TIMEOUT, TimeUnit.SECONDS));
+    assertEquals(2, operationsService.getPreparedOrders(0));
+    assertEquals(1, operationsService.getStolenOrders(0));
+    assertEquals(0, operationsService.getPreparedOrders(1));
+    assertTrue(operationsService.getUtilization(0) > 0);
+    assertEquals(0.0, operationsService.getUtilization(1));
+  }
+
+  @Test
+  void testWorkerIndexSelectsChefRegardlessOfThread() throws Exception {
+    WorkStealingOperationsService operationsService = new WorkStealingOperationsService.Builder()
+        .chefs(2).cookTimeMillis(0).build();
+    for (int i = 0; i < 4; i++) {
+      operationsService.completeOrder(newOrder());
+    }
+    PreparationListener listener = order -> {
+    };
+
+    for (int i = 0; i < 2; i++) {
+      Thread.ofVirtual().start(() -> operationsService.prepareOrder(1, listener,
+          OperationsService.TIMEOUT, TimeUnit.SECONDS)).join();
+    }
+
+    assertEquals(2, operationsService.getPreparedOrders(1));
+    assertEquals(0, operationsService.getStolenOrders(1));
+    assertEquals(0, operationsService.getQueuedOrders(1));
+    assertEquals(2, operationsService.getQueuedOrders(0));
+  }
+
+  @Test
+  void testBuildingAffinityRoutesBuildingToSameChef() {
+    WorkStealingOperationsService operationsService = new WorkStealingOperationsService.Builder()
+        .chefs(4).cookTimeMillis(0).buildingAffinity(true).build();
+    for (int i = 0; i < 5; i++) {
+      operationsService.completeOrder(newOrder());
+    }
+    int chef = Math.floorMod("1".hashCode(), operationsService.getChefs());
+    assertEquals(5, operationsService.getQueuedOrders(chef));
+    assertEquals(5, operationsService.listCompletedOrders().size());
+  }
+
+  private static List<Order> prepareAll(OperationsService operationsService, int count) {
+    List<Order> prepared = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      prepared.add(operationsService.prepareOrder());
+    }
+    return prepared;
+  }
+
+  private static Order completeWith(DataService dataService, OperationsService operationsService,
+      int pancakes) {
+    Order order = newOrder();
+    dataService.addOrder(order, Map.of(PancakeFactory.getMilkChocolatePancakeRecipe(), pancakes));
+    operationsService.completeOrder(order);
+    return order;
+  }
+
+  @Test
+  void testShortestJobFirstPreparesSmallOrdersFirst() {
+    DataService dataService = new RecipeIndexedDataService();
+    SchedulingOperationsService fifo = new SchedulingOperationsService.Builder(dataService)
+        .cookTimeMillis(0).policy(SchedulingPolicy.FIFO).build();
+    SchedulingOperationsService sjf = new SchedulingOperationsService.Builder(dataService)
+        .cookTimeMillis(0).policy(SchedulingPolicy.SHORTEST_JOB_FIRST).build();
+    Order large = completeWith(dataService, fifo, 5);
+    Order small = completeWith(dataService, fifo, 1);
+    Order medium = completeWith(dataService, fifo, 2);
+    List.of(large, small, medium).forEach(sjf::completeOrder);
+
+    assertEquals(List.of(large, small, medium), prepareAll(fifo, 3));
+    assertEquals(List.of(small, medium, large), prepareAll(sjf, 3));
+    assertEquals(3, sjf.getWaitLatency().getCount());
+    assertEquals(3, sjf.getPreparationLatency().getCount());
+  }
+
+  @Test
+  void testAgingPreventsStarvationOfLargeOrder() throws InterruptedException {
+    DataService dataService = new RecipeIndexedDataService();
+    SchedulingOperationsService aging = new SchedulingOperationsService.Builder(dataService)
+        .cookTimeMillis(0).policy(SchedulingPolicy.AGING).agingMillisPerPancake(2).build();
+    Order large = completeWith(dataService, aging, 5);
+    Order small = completeWith(dataService, aging, 1);
+    TimeUnit.MILLISECONDS.sleep(20);
+    Order late = completeWith(dataService, aging, 1);
+
+    assertEquals(List.of(small, large, late), prepareAll(aging, 3));
+  }
+
+  private static CollectionsOperationsService bounded(OverloadPolicy overloadPolicy) {
+    return new CollectionsOperationsService.Builder().cookTimeMillis(0).capacity(2)
+        .overloadPolicy(overloadPolicy).admissionTimeoutMillis(10).build();
+  }
+
+  @Test
+  void testRejectPolicyRejectsWhenFull() {
+    CollectionsOperationsService operationsService = bounded(OverloadPolicy.REJECT);
+    operationsService.completeOrder(newOrder());
+    assertEquals(Backpressure.ELEVATED, operationsService.getBackpressure());
+    operationsService.completeOrder(newOrder());
+    assertEquals(Backpressure.SATURATED, operationsService.getBackpressure());
+
+    assertThrows(OrderRejectedException.class, () -> operationsService.completeOrder(newOrder()));
+    assertEquals(2, operationsService.listCompletedOrders().size());
+    assertEquals(2, operationsService.getCompletedQueueDepth());
+    assertEquals(1, operationsService.getOrdersRejected());
+    assertEquals("SATURATED", operationsService.getBackpressureLevel());
+  }
+
+  @Test
+  void testBlockPolicyRejectsAfterAdmissionTimeout() {
+    CollectionsOperationsService operationsService = bounded(OverloadPolicy.BLOCK);
+    operationsService.completeOrder(newOrder());
+    operationsService.completeOrder(newOrder());
+
+    assertThrows(OrderRejectedException.class, () -> operationsService.completeOrder(newOrder()));
+    operationsService.prepareOrder();
+    operationsService.completeOrder(newOrder());
+    assertEquals(2, operationsService.listCompletedOrders().size());
+  }
+
+  @Test
+  void testShedOldestPolicyDropsOldestOrder() {
+    CollectionsOperationsService operationsService = bounded(OverloadPolicy.SHED_OLDEST);
+    List<Order> shed = new ArrayList<>();
+    operationsService.setShedOrderHandler(shed::add);
+    Order oldest = newOrder();
+    Order middle = newOrder();
+    Order newest = newOrder();
+    List.of(oldest, middle, newest).forEach(operationsService::completeOrder);
+
+    assertEquals(List.of(oldest), shed);
+    assertEquals(1, operationsService.getOrdersShed());
+    assertEquals(Set.of(middle.getId(), newest.getId()), operationsService.listCompletedOrders());
+  }
+
+  @Test
+  void testFailingShedHandlerKeepsNewOrderAdmitted() {
+    CollectionsOperationsService operationsService = bounded(OverloadPolicy.SHED_OLDEST);
+    operationsService.setShedOrderHandler(order -> {
+      throw new IllegalStateException("handler failed");
+    });
+    Order oldest = newOrder();
+    Order middle = newOrder();
+    Order newest = newOrder();
+    List.of(oldest, middle, newest).forEach(operationsService::completeOrder);
+
+    assertEquals(1, operationsService.getOrdersShed());
+    assertEquals(Set.of(middle.getId(), newest.getId()), operationsService.listCompletedOrders());
+  }
+
+  @Test
+  void testCompletedAndPreparedStagesAreIndexed() {
+    CollectionsOperationsService operationsService =
+        new CollectionsOperationsService(LinkedBlockingQueue::new, 0);
+    List<Order> orders = List.of(newOrder(), newOrder(), newOrder());
+    orders.forEach(operationsService::completeOrder);
+
+    OrderPage page = operationsService.pageCompletedOrders(OrderPage.FIRST, 2);
+    assertEquals(List.of(orders.get(0).getId(), orders.get(1).getId()), page.orders());
+    assertEquals(List.of(orders.get(2).getId()),
+        operationsService.pageCompletedOrders(page.nextCursor(), 2).orders());
+
+    Order prepared = operationsService.prepareOrder();
+    assertFalse(operationsService.isCompletedOrder(prepared.getId()));
+    assertTrue(operationsService.isPreparedOrder(prepared.getId()));
+    assertEquals(2, operationsService.countCompletedOrders());
+    assertEquals(List.of(prepared.getId()),
+        operationsService.pagePreparedOrders(OrderPage.FIRST, 10).orders());
+
+    operationsService.deliverOrder();
+    assertEquals(0, operationsService.countPreparedOrders());
+  }
+
+  @Test
+  void testRejectedOrderIsNotIndexed() {
+    CollectionsOperationsService operationsService = bounded(OverloadPolicy.REJECT);
+    operationsService.completeOrder(newOrder());
+    operationsService.completeOrder(newOrder());
+    Order rejected = newOrder();
+
+    assertThrows(OrderRejectedException.class, () -> operationsService.completeOrder(rejected));
+    assertFalse(operationsService.isCompletedOrder(rejected.getId()));
+    assertEquals(2, operationsService.countCompletedOrders());
+  }
+
+  @Test
+  void testUnboundedQueueReportsNoBackpressure() {
+    CollectionsOperationsService operationsService = new CollectionsOperationsService();
+    operationsService.completeOrder(newOrder());
+
+    assertEquals(Backpressure.NONE, operationsService.getBackpressure());
+  }
+}
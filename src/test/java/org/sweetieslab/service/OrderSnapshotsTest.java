@@ -0,0 +1,190 @@
+package org.sweetieslab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.sweetieslab.service.TestOrders.newOrder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.PersistenceException;
+
+class OrderSnapshotsTest {
+
+  @TempDir
+  Path directory;
+
+  @BeforeAll
+  static void setUpValidator() {
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+  }
+
+  @Test
+  void testSnapshotRestoresOrdersAndStages() {
+    PancakeRecipe dark = PancakeFactory.getDarkChocolatePancakeRecipe();
+    ConcurrentMapDataService dataService = new ConcurrentMapDataService();
+    CollectionsOperationsService operationsService =
+        new CollectionsOperationsService(LinkedBlockingQueue::new, 0);
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      Order order = newOrder();
+      dataService.addOrder(order, Map.of(dark, i + 1));
+      orders.add(order);
+    }
+    for (Order order : orders.subList(1, 5)) {
+      order.transition(OrderStatus.OPEN, OrderStatus.COMPLETED);
+      operationsService.completeOrder(order);
+    }
+    operationsService.prepareOrder(new PreparationListener() {
+      @Override
+      public void preparationStarted(Order order) {
+        order.transition(OrderStatus.COMPLETED, OrderStatus.PREPARING);
+      }
+
+      @Override
+      public void orderPrepared(Order order) {
+        order.transition(OrderStatus.PREPARING, OrderStatus.PREPARED);
+      }
+    });
+    Path file = directory.resolve("orders.snapshot");
+
+    assertEquals(5, new OrderSnapshots(dataService, operationsService).write(file));
+
+    ConcurrentMapDataService restoredData = new ConcurrentMapDataService();
+    CollectionsOperationsService restoredOperations =
+        new CollectionsOperationsService(LinkedBlockingQueue::new, 0);
+    assertEquals(5, new OrderSnapshots(restoredData, restoredOperations).load(file));
+    for (int i = 0; i < 5; i++) {
+      UUID orderId = orders.get(i).getId();
+      assertEquals(Map.of(dark, i + 1), restoredData.getPancakes(orderId));
+      assertEquals(orders.get(i).getStatus(), restoredData.getOrder(orderId).getStatus());
+    }
+    assertEquals(List.of(orders.get(1).getId()),
+        restoredOperations.pagePreparedOrders(OrderPage.FIRST, 10).orders());
+    assertEquals(orders.subList(2, 5).stream().map(Order::getId).toList(),
+        restoredOperations.pageCompletedOrders(OrderPage.FIRST, 10).orders());
+    assertEquals(orders.get(2).getId(), restoredOperations.prepareOrder().getId());
+  }
+
+  @Test
+  void testPreparingOrderIsRestoredForCookingAgain() {
+    PancakeRecipe dark = PancakeFactory.getDarkChocolatePancakeRecipe();
+    ConcurrentMapDataService dataService = new ConcurrentMapDataService();
+    Order order = newOrder();
+    dataService.addOrder(order, Map.of(dark, 1));
+    order.transition(OrderStatus.OPEN, OrderStatus.COMPLETED);
+    order.transition(OrderStatus.COMPLETED, OrderStatus.PREPARING);
+    Path file = directory.resolve("orders.snapshot");
+    new OrderSnapshots(dataService, new CollectionsOperationsService()).write(file);
+
+    ConcurrentMapDataService restoredData = new ConcurrentMapDataService();
+    CollectionsOperationsService restoredOperations = new CollectionsOperationsService();
+    new OrderSnapshots(restoredData, restoredOperations).load(file);
+
+    assertEquals(OrderStatus.COMPLETED, restoredData.getOrder(order.getId()).getStatus());
+    assertEquals(Set.of(order.getId()), restoredOperations.listCompletedOrders());
+  }
+
+  @Test
+  void testSnapshotWhileWritersRun() throws Exception {
+    PancakeRecipe dark = PancakeFactory.getDarkChocolatePancakeRecipe();
+    ConcurrentMapDataService dataService = new ConcurrentMapDataService();
+    CollectionsOperationsService operationsService =
+        new CollectionsOperationsService(LinkedBlockingQueue::new, 0);
+    for (int i = 0; i < 1_000; i++) {
+      dataService.addOrder(newOrder(), Map.of(dark, 1));
+    }
+    AtomicBoolean running = new AtomicBoolean(true);
+    CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+      while (running.get()) {
+        Order order = newOrder();
+        dataService.addOrder(order, Map.of(dark, 1));
+        dataService.addPancakes(dark, order.getId(), 1);
+        dataService.removeOrder(order.getId());
+      }
+    });
+    Path file = directory.resolve("orders.snapshot");
+    long written;
+    try {
+      written = new OrderSnapshots(dataService, operationsService).write(file);
+    } finally {
+      running.set(false);
+      writer.get();
+    }
+
+    ConcurrentMapDataService restoredData = new ConcurrentMapDataService();
+    assertEquals(written, new OrderSnapshots(restoredData,
+        new CollectionsOperationsService(LinkedBlockingQueue::new, 0)).load(file));
+    assertTrue(written >= 1_000);
+  }
+
+  @Test
+  void testRejectsForeignFile() throws IOException {
+    Path file = Files.writeString(directory.resolve("orders.snapshot"), "not a snapshot file");
+    OrderSnapshots snapshots = new OrderSnapshots(new ConcurrentMapDataService(),
+        new CollectionsOperationsService());
+
+    assertThrows(PersistenceException.class, () -> snapshots.load(file));
+  }
+
+  private Path writeSnapshot(int orders) {
+    ConcurrentMapDataService dataService = new ConcurrentMapDataService();
+    for (int i = 0; i < orders; i++) {
+      dataService.addOrder(newOrder(), Map.of(PancakeFactory.getDarkChocolatePancakeRecipe(), 1));
+    }
+    Path file = directory.resolve("orders.snapshot");
+    new OrderSnapshots(dataService, new CollectionsOperationsService()).write(file);
+    return file;
+  }
+
+  @Test
+  void testCorruptRecordLoadsNothing() throws IOException {
+    Path file = writeSnapshot(3);
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+    ConcurrentMapDataService restoredData = new ConcurrentMapDataService();
+    CollectionsOperationsService restoredOperations = new CollectionsOperationsService();
+
+    assertThrows(PersistenceException.class,
+        () -> new OrderSnapshots(restoredData, restoredOperations).load(file));
+    assertEquals(0, restoredData.getStoredOrders());
+    assertEquals(0, restoredOperations.countCompletedOrders());
+  }
+
+  @Test
+  void testTruncatedSnapshotLoadsNothing() throws IOException {
+    Path file = writeSnapshot(3);
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+    ConcurrentMapDataService restoredData = new ConcurrentMapDataService();
+
+    assertThrows(PersistenceException.class, () -> new OrderSnapshots(restoredData,
+        new CollectionsOperationsService()).load(file));
+    assertEquals(0, restoredData.getStoredOrders());
+  }
+}
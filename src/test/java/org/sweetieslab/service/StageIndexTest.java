@@ -0,0 +1,107 @@
+package org.sweetieslab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class StageIndexTest {
+
+  @Test
+  void testPagesFollowInsertionOrder() {
+    StageIndex index = new StageIndex();
+    List<UUID> orders = IntStream.range(0, 7).mapToObj(i -> UUID.randomUUID()).toList();
+    orders.forEach(index::add);
+
+    List<UUID> listed = new ArrayList<>();
+    OrderPage page = index.page(OrderPage.FIRST, 3);
+    listed.addAll(page.orders());
+    while (page.hasNext()) {
+      page = index.page(page.nextCursor(), 3);
+      listed.addAll(page.orders());
+    }
+
+    assertEquals(orders, listed);
+    assertEquals(7, index.size());
+    assertEquals(Set.copyOf(orders), index.orders());
+  }
+
+  @Test
+  void testCursorSurvivesRemovalAndReinsertion() {
+    StageIndex index = new StageIndex();
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID third = UUID.randomUUID();
+    List.of(first, second, third).forEach(index::add);
+
+    OrderPage page = index.page(OrderPage.FIRST, 1);
+    index.remove(second);
+    index.add(first);
+    OrderPage rest = index.page(page.nextCursor(), 10);
+
+    assertEquals(List.of(first), page.orders());
+    assertEquals(List.of(third, first), rest.orders());
+    assertFalse(rest.hasNext());
+    assertFalse(index.contains(second));
+    assertTrue(index.contains(first));
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void testInvalidPageArguments() {
+    StageIndex index = new StageIndex();
+
+    assertThrows(IllegalArgumentException.class, () -> index.page(-1, 10));
+    assertThrows(IllegalArgumentException.class, () -> index.page(OrderPage.FIRST, 0));
+    assertEquals(List.of(), index.page(OrderPage.FIRST, 10).orders());
+  }
+
+  @Test
+  void testConcurrentAddAndRemove() {
+    StageIndex index = new StageIndex();
+    CompletableFuture.allOf(IntStream.range(0, 4)
+        .mapToObj(i -> CompletableFuture.runAsync(() -> {
+          for (int j = 0; j < 10_000; j++) {
+            UUID orderId = UUID.randomUUID();
+            index.add(orderId);
+            if (j % 2 == 0) {
+              index.remove(orderId);
+            }
+          }
+        }))
+        .toArray(CompletableFuture[]::new)).join();
+
+    assertEquals(20_000, index.size());
+    assertEquals(20_000, index.page(OrderPage.FIRST, Integer.MAX_VALUE).orders().size());
+  }
+
+  @Test
+  void testConcurrentAddAndRemoveOfSameOrders() {
+    StageIndex index = new StageIndex();
+    List<UUID> orders = IntStream.range(0, 8).mapToObj(i -> UUID.randomUUID()).toList();
+    CompletableFuture.allOf(IntStream.range(0, 4)
+        .mapToObj(i -> CompletableFuture.runAsync(() -> {
+          for (int j = 0; j < 10_000; j++) {
+            UUID orderId = orders.get(j % orders.size());
+            if ((i + j) % 2 == 0) {
+              index.add(orderId);
+            } else {
+              index.remove(orderId);
+            }
+          }
+        }))
+        .toArray(CompletableFuture[]::new)).join();
+
+    List<UUID> paged = index.page(OrderPage.FIRST, Integer.MAX_VALUE).orders();
+    assertEquals(index.size(), paged.size());
+    assertEquals(index.orders(), Set.copyOf(paged));
+  }
+}
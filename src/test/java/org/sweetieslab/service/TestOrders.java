@@ -0,0 +1,18 @@
+package org.sweetieslab.service;
+
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+
+final class TestOrders {
+
+  private TestOrders() {
+  }
+
+  static Order newOrder() {
+    return newOrder("1");
+  }
+
+  static Order newOrder(String room) {
+    return new Order(new Address.Builder().building("1").room(room).build());
+  }
+}
@@ -0,0 +1,189 @@
+package org.sweetieslab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.sweetieslab.service.TestOrders.newOrder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.model.pancakes.PancakeRecipe;
+import org.sweetieslab.service.exception.OrderNotFoundException;
+import org.sweetieslab.service.exception.PersistenceException;
+import org.sweetieslab.service.wal.FsyncPolicy;
+import org.sweetieslab.service.wal.OrderLogCodec;
+import org.sweetieslab.service.wal.WriteAheadLog;
+
+class WriteAheadLogDataServiceTest {
+
+  private static final int SEGMENT_SIZE = 64 << 10;
+
+  @TempDir
+  Path directory;
+
+  @BeforeAll
+  static void setUpValidator() {
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1", "2"));
+      }
+    });
+  }
+
+  private WriteAheadLogDataService open(FsyncPolicy fsyncPolicy) {
+    return new WriteAheadLogDataService.Builder(directory)
+        .segmentSize(SEGMENT_SIZE)
+        .fsyncPolicy(fsyncPolicy)
+        .checkpointSegments(2)
+        .build();
+  }
+
+  @Test
+  void testReplayRestoresOrdersAndPancakes() {
+    PancakeRecipe dark = PancakeFactory.getDarkChocolatePancakeRecipe();
+    PancakeRecipe random = PancakeFactory.getRandomPancakeRecipe();
+    Order kept = newOrder("2");
+    Order removed = newOrder("1");
+    try (WriteAheadLogDataService dataService = open(FsyncPolicy.NONE)) {
+      dataService.addOrder(kept, Map.of(dark, 2));
+      dataService.addPancakes(random, kept.getId(), 3);
+      dataService.removePancakes(dark, kept.getId(), 1);
+      dataService.addOrder(removed);
+      dataService.removeOrder(removed.getId());
+    }
+
+    try (WriteAheadLogDataService dataService = open(FsyncPolicy.NONE)) {
+      Order restored = dataService.getOrder(kept.getId());
+      assertEquals("1", restored.getBuilding());
+      assertEquals("2", restored.getRoom());
+      assertEquals(Map.of(dark, 1, random, 3), dataService.getPancakes(kept.getId()));
+      assertThrows(OrderNotFoundException.class, () -> dataService.getOrder(removed.getId()));
+    }
+  }
+
+  @Test
+  void testFailedAppendLeavesStateUnchanged() {
+    PancakeRecipe dark = PancakeFactory.getDarkChocolatePancakeRecipe();
+    Order order = newOrder("1");
+    Order rejected = newOrder("2");
+    WriteAheadLogDataService dataService = open(FsyncPolicy.COMMIT);
+    dataService.addOrder(order, Map.of(dark, 2));
+    dataService.close();
+
+    assertThrows(PersistenceException.class, () -> dataService.addOrder(rejected));
+    assertThrows(PersistenceException.class,
+        () -> dataService.addPancakes(dark, order.getId(), 1));
+    assertThrows(PersistenceException.class,
+        () -> dataService.removePancakes(dark, order.getId(), 1));
+    assertThrows(PersistenceException.class, () -> dataService.removeOrder(order.getId()));
+
+    assertNull(dataService.findOrder(rejected.getId()));
+    assertEquals(order, dataService.getOrder(order.getId()));
+    assertEquals(2, dataService.getPancakesCount(order.getId()));
+  }
+
+  @Test
+  void testTornTailIsSkipped() throws IOException {
+    PancakeRecipe dark = PancakeFactory.getDarkChocolatePancakeRecipe();
+    Order order = newOrder("1");
+    try (WriteAheadLogDataService dataService = open(FsyncPolicy.NONE)) {
+      dataService.addOrder(order, Map.of(dark, 1));
+      dataService.addPancakes(dark, order.getId(), 5);
+    }
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.sorted().reduce((first, second) -> second).orElseThrow();
+    }
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+      channel.read(header, 0);
+      long payload = 2L * WriteAheadLog.HEADER_SIZE + header.flip().getInt();
+      ByteBuffer corrupted = ByteBuffer.allocate(1);
+      channel.read(corrupted, payload);
+      corrupted.put(0, (byte) ~corrupted.get(0));
+      channel.write(corrupted.rewind(), payload);
+    }
+
+    try (WriteAheadLogDataService dataService = open(FsyncPolicy.NONE)) {
+      assertEquals(Map.of(dark, 1), dataService.getPancakes(order.getId()));
+    }
+  }
+
+  @Test
+  void testMalformedRecordFailsReplay() {
+    try (WriteAheadLog log = new WriteAheadLog(directory, SEGMENT_SIZE, FsyncPolicy.NONE, 0)) {
+      log.append(OrderLogCodec.ADD_PANCAKES, ByteBuffer.allocate(Integer.BYTES));
+    }
+
+    assertThrows(PersistenceException.class, () -> open(FsyncPolicy.NONE));
+  }
+
+  @Test
+  void testCheckpointBoundsSegmentCount() {
+    PancakeRecipe dark = PancakeFactory.getDarkChocolatePancakeRecipe();
+    List<Order> orders = new ArrayList<>();
+    try (WriteAheadLogDataService dataService = open(FsyncPolicy.INTERVAL)) {
+      for (int i = 0; i < 20_000; i++) {
+        Order order = newOrder("1");
+        dataService.addOrder(order, Map.of(dark, 1));
+        if (i % 100 == 0) {
+          orders.add(order);
+        } else {
+          dataService.removeOrder(order.getId());
+        }
+        assertTrue(dataService.getSegmentCount() <= 3);
+      }
+    }
+
+    try (WriteAheadLogDataService dataService = open(FsyncPolicy.INTERVAL)) {
+      orders.forEach(order -> assertEquals(1, dataService.getPancakesCount(order.getId())));
+      assertTrue(dataService.getSegmentCount() <= 3);
+    }
+  }
+
+  @Test
+  void testGroupCommitUnderConcurrentWriters() {
+    PancakeRecipe dark = PancakeFactory.getDarkChocolatePancakeRecipe();
+    List<UUID> orderIds;
+    try (WriteAheadLogDataService dataService = open(FsyncPolicy.COMMIT)) {
+      orderIds = IntStream.range(0, 4).mapToObj(i -> {
+        Order order = newOrder("1");
+        dataService.addOrder(order);
+        return order.getId();
+      }).toList();
+      CompletableFuture.allOf(orderIds.stream()
+          .map(orderId -> CompletableFuture.runAsync(() -> {
+            for (int j = 0; j < 200; j++) {
+              dataService.addPancakes(dark, orderId, 1);
+            }
+          }))
+          .toArray(CompletableFuture[]::new)).join();
+    }
+
+    try (WriteAheadLogDataService dataService = open(FsyncPolicy.COMMIT)) {
+      orderIds.forEach(orderId -> assertEquals(200, dataService.getPancakesCount(orderId)));
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package org.sweetieslab.service.delivery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.service.CollectionsOperationsService;
+import org.sweetieslab.service.ConcurrentMapDataService;
+import org.sweetieslab.service.ManagementService;
+import org.sweetieslab.service.OrderDraft;
+
+class DeliveryBatcherTest {
+
+  private ManagementService managementService;
+
+  @BeforeEach
+  void setUp() {
+    Set<String> rooms = Set.of("1", "2", "3", "10");
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", rooms, "2", rooms);
+      }
+    });
+    managementService = new ManagementService(
+        new CollectionsOperationsService(LinkedBlockingQueue::new, 0),
+        new ConcurrentMapDataService());
+  }
+
+  @AfterEach
+  void tearDown() {
+    managementService.close();
+  }
+
+  private Order prepared(String building, String room) {
+    Address address = new Address.Builder().building(building).room(room).build();
+    Order order = managementService.submitOrder(new OrderDraft(address)
+        .addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), 1), true);
+    managementService.prepareOrder();
+    return order;
+  }
+
+  @Test
+  void testOrdersGroupedByBuildingInRouteOrder() {
+    Order farRoom = prepared("1", "1");
+    Order otherBuilding = prepared("2", "2");
+    Order nearRoom = prepared("1", "3");
+    Order middleRoom = prepared("1", "2");
+    DistanceTable distanceTable = new DistanceTable.Builder()
+        .distance("1", "3", 1)
+        .distance("1", "2", 3)
+        .distance("1", "1", 5)
+        .distance("2", "2", 2)
+        .build();
+    DeliveryBatcher batcher = new DeliveryBatcher.Builder(managementService)
+        .distanceTable(distanceTable).batchSize(10).windowMillis(0).build();
+
+    List<DeliveryRun> runs = batcher.nextRuns();
+
+    assertEquals(2, runs.size());
+    assertEquals("1", runs.get(0).getBuilding());
+    assertEquals(List.of(nearRoom, middleRoom, farRoom), runs.get(0).getStops());
+    assertEquals("2", runs.get(1).getBuilding());
+    assertEquals(List.of(otherBuilding), runs.get(1).getStops());
+    runs.forEach(run -> run.getStops().forEach(
+        order -> assertEquals(OrderStatus.OUT_FOR_DELIVERY, order.getStatus())));
+    assertTrue(managementService.listPreparedOrders().isEmpty());
+  }
+
+  @Test
+  void testBatchLimitedBySizeAndUnknownRoomsOrderedByNumber() {
+    Order roomTen = prepared("1", "10");
+    Order roomTwo = prepared("1", "2");
+    Order roomThree = prepared("1", "3");
+    DeliveryBatcher batcher = new DeliveryBatcher.Builder(managementService)
+        .batchSize(2).windowMillis(0).build();
+
+    List<DeliveryRun> runs = batcher.nextRuns();
+
+    assertEquals(1, runs.size());
+    assertEquals(List.of(roomTwo, roomTen), runs.get(0).getStops());
+    assertEquals(List.of(roomThree), batcher.nextRuns().get(0).getStops());
+  }
+
+  @Test
+  void testWaitBoundedByWindow() {
+    prepared("1", "1");
+    DeliveryBatcher batcher = new DeliveryBatcher.Builder(managementService)
+        .batchSize(10).windowMillis(50).build();
+    long start = System.nanoTime();
+
+    assertEquals(1, batcher.nextRuns().get(0).size());
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    assertEquals(List.of(), batcher.nextRuns(0, TimeUnit.NANOSECONDS));
+  }
+}
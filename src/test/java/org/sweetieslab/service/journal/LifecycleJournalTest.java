@@ -0,0 +1,143 @@
+package org.sweetieslab.service.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+
+class LifecycleJournalTest {
+
+  private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+  private final JournalSink sink = entry -> written.add(
+      entry.getSequence() + ":" + entry.getType() + ":" + entry.getOrder().getId() + ":"
+          + entry.getPancakesCount());
+  private Order order;
+
+  @BeforeEach
+  void setUp() {
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+    order = new Order(new Address.Builder().building("1").room("1").build());
+  }
+
+  @Test
+  void testEntriesDrainedInOrder() {
+    try (LifecycleJournal journal = new LifecycleJournal(4, sink)) {
+      journal.record(LifecycleEventType.CREATED, order, 0);
+      journal.record(LifecycleEventType.PANCAKES_ADDED, order,
+          PancakeFactory.getMilkChocolatePancakeRecipe(), 2, 2);
+      journal.record(LifecycleEventType.COMPLETED, order, 2);
+      journal.flush();
+    }
+
+    assertEquals(List.of("0:CREATED:" + order.getId() + ":0",
+        "1:PANCAKES_ADDED:" + order.getId() + ":2",
+        "2:COMPLETED:" + order.getId() + ":2"), written);
+  }
+
+  @Test
+  void testConcurrentProducersWrapAroundWithoutLosingEntries() throws Exception {
+    int producers = 4;
+    int perProducer = 10_000;
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    try (LifecycleJournal journal = new LifecycleJournal(8, sink)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int p = 0; p < producers; p++) {
+        int producer = p;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < perProducer; i++) {
+            journal.record(LifecycleEventType.PREPARED, order, producer);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      journal.flush();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(producers * perProducer, written.size());
+    Map<String, Integer> perProducerCounts = new HashMap<>();
+    for (int i = 0; i < written.size(); i++) {
+      String[] fields = written.get(i).split(":");
+      assertEquals(String.valueOf(i), fields[0]);
+      perProducerCounts.merge(fields[3], 1, Integer::sum);
+    }
+    perProducerCounts.values().forEach(count -> assertEquals(perProducer, count));
+  }
+
+  @Test
+  void testRecordAfterCloseIsDropped() {
+    LifecycleJournal journal = new LifecycleJournal(4, sink);
+    journal.close();
+
+    for (int i = 0; i < 10; i++) {
+      journal.record(LifecycleEventType.CREATED, order, 0);
+    }
+    journal.flush();
+
+    assertEquals(10, journal.getDroppedEvents());
+    assertTrue(written.isEmpty());
+  }
+
+  @Test
+  void testRecordsRacingCloseAreWrittenOrDropped() throws Exception {
+    int producers = 4;
+    int perProducer = 10_000;
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    LifecycleJournal journal = new LifecycleJournal(8, sink);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int p = 0; p < producers; p++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < perProducer; i++) {
+            journal.record(LifecycleEventType.PREPARED, order, 0);
+          }
+        }));
+      }
+      journal.close();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(producers * perProducer, written.size() + journal.getDroppedEvents());
+  }
+
+  @Test
+  void testCapacityMustBePowerOfTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new LifecycleJournal(6, sink));
+  }
+
+  @Test
+  void testLoggingSinkFormatsLazily() {
+    JournalEntry entry = new JournalEntry();
+    entry.set(0, 0, LifecycleEventType.DELIVERED, order, null, 0, 3);
+
+    assertEquals("Order " + order.getId() + " with 3 pancakes for building 1, room 1 out for "
+        + "delivery.", LoggingJournalSink.format(entry));
+  }
+}
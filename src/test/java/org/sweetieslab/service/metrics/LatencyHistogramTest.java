@@ -0,0 +1,83 @@
+package org.sweetieslab.service.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void testPercentilesWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10_000; value++) {
+      histogram.record(value * 1_000);
+    }
+
+    assertEquals(10_000, histogram.getCount());
+    assertEquals(5_000_500, histogram.getMean());
+    assertEquals(10_000_000, histogram.getMax());
+    assertWithin(5_000_000, histogram.getPercentile(0.5));
+    assertWithin(9_900_000, histogram.getPercentile(0.99));
+    assertEquals(10_000_000, histogram.getPercentile(1.0));
+  }
+
+  @Test
+  void testBucketsCoverValueRange() {
+    for (long value : new long[]{0, 1, 15, 16, 17, 1_000, 123_456_789, Long.MAX_VALUE}) {
+      int bucket = LatencyHistogram.bucketOf(value);
+      assertTrue(LatencyHistogram.upperBoundOf(bucket) >= value);
+      assertTrue(bucket == 0 || LatencyHistogram.upperBoundOf(bucket - 1) < value);
+    }
+  }
+
+  @Test
+  void testConcurrentRecording() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    CompletableFuture.allOf(IntStream.range(0, 4)
+        .mapToObj(i -> CompletableFuture.runAsync(() -> {
+          for (int j = 0; j < 10_000; j++) {
+            histogram.record(j);
+          }
+        }))
+        .toArray(CompletableFuture[]::new)).join();
+
+    assertEquals(40_000, histogram.getCount());
+    assertEquals(9_999, histogram.getMax());
+  }
+
+  @Test
+  void testEmptyAndInvalidQuantile() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getPercentile(0.99));
+    assertEquals(0, histogram.getMean());
+    assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(1.5));
+  }
+
+  @Test
+  void testSnapshotMatchesPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 1_000; value++) {
+      histogram.record(value * 1_000);
+    }
+
+    LatencySnapshot snapshot = histogram.snapshot();
+
+    assertEquals(histogram.getCount(), snapshot.count());
+    assertEquals(histogram.getMean(), snapshot.mean());
+    assertEquals(histogram.getPercentile(0.5), snapshot.p50());
+    assertEquals(histogram.getPercentile(0.99), snapshot.p99());
+    assertEquals(histogram.getPercentile(0.999), snapshot.p999());
+    assertEquals(histogram.getMax(), snapshot.max());
+    assertTrue(snapshot.summary().startsWith("count=1000, mean=500 us"));
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(Math.abs(actual - expected) <= expected / 16, "expected ~" + expected
+        + " but was " + actual);
+  }
+}
@@ -0,0 +1,37 @@
+package org.sweetieslab.service.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+import org.sweetieslab.service.CollectionsOperationsService;
+
+class MBeanRegistryTest {
+
+  private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+  @Test
+  void testRegisterAndClose() throws Exception {
+    ObjectName name;
+    try (MBeanRegistry registry = new MBeanRegistry(server)) {
+      name = registry.register(new CollectionsOperationsService());
+
+      assertTrue(server.isRegistered(name));
+      assertEquals(0, server.getAttribute(name, "CompletedQueueDepth"));
+      assertEquals("NONE", server.getAttribute(name, "BackpressureLevel"));
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  void testNonCompliantObjectRejected() {
+    try (MBeanRegistry registry = new MBeanRegistry(server)) {
+      assertThrows(IllegalStateException.class, () -> registry.register(new Object()));
+    }
+  }
+}
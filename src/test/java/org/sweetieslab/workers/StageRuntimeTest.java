@@ -0,0 +1,132 @@
+package org.sweetieslab.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sweetieslab.model.order.Address;
+import org.sweetieslab.model.order.Order;
+import org.sweetieslab.model.order.OrderStatus;
+import org.sweetieslab.model.order.validator.AddressValidator;
+import org.sweetieslab.model.pancakes.PancakeFactory;
+import org.sweetieslab.service.CollectionsOperationsService;
+import org.sweetieslab.service.ConcurrentMapDataService;
+import org.sweetieslab.service.ManagementService;
+import org.sweetieslab.service.OrderDraft;
+import org.sweetieslab.service.delivery.DeliveryBatcher;
+
+class StageRuntimeTest {
+
+  private ManagementService managementService;
+
+  @BeforeEach
+  void setUp() {
+    Address.setValidator(new AddressValidator() {
+      @Override
+      public Map<String, Set<String>> getValidBuildingsVsRooms() {
+        return Map.of("1", Set.of("1"));
+      }
+    });
+    managementService = new ManagementService(
+        new CollectionsOperationsService(LinkedBlockingQueue::new, 0),
+        new ConcurrentMapDataService());
+  }
+
+  @AfterEach
+  void tearDown() {
+    managementService.close();
+  }
+
+  private Order submit() {
+    Address address = new Address.Builder().building("1").room("1").build();
+    return managementService.submitOrder(new OrderDraft(address)
+        .addPancakes(PancakeFactory.getMilkChocolatePancakeRecipe(), 1), true);
+  }
+
+  @Test
+  void testCompletedOrdersAreDeliveredAndDrainedOnStop() {
+    StageRuntime stageRuntime = new StageRuntime(managementService,
+        Executors.newSingleThreadExecutor(), Executors.newFixedThreadPool(3));
+    Order backlog = submit();
+    stageRuntime.start();
+    List<Order> orders = new ArrayList<>();
+    orders.add(backlog);
+    for (int i = 0; i < 200; i++) {
+      orders.add(submit());
+    }
+    stageRuntime.stop();
+
+    assertFalse(stageRuntime.isStarted());
+    assertTrue(managementService.listCompletedOrders().isEmpty());
+    assertTrue(managementService.listPreparedOrders().isEmpty());
+    orders.forEach(order -> assertEquals(OrderStatus.OUT_FOR_DELIVERY, order.getStatus()));
+  }
+
+  @Test
+  void testCouriersDeliverThroughBatcher() {
+    StageRuntime stageRuntime = new StageRuntime(managementService,
+        Executors.newSingleThreadExecutor(), 1, Executors.newFixedThreadPool(2),
+        new DeliveryBatcher.Builder(managementService).batchSize(4).windowMillis(5).build());
+    stageRuntime.start();
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      orders.add(submit());
+    }
+    stageRuntime.stop();
+
+    assertTrue(managementService.listPreparedOrders().isEmpty());
+    assertEquals(orders.size(), managementService.getOrdersDelivered());
+    orders.forEach(order -> assertEquals(OrderStatus.OUT_FOR_DELIVERY, order.getStatus()));
+  }
+
+  @Test
+  void testPreparedBacklogIsDeliveredOnStart() {
+    Order order = submit();
+    managementService.prepareOrder();
+    StageRuntime stageRuntime = new StageRuntime(managementService,
+        Executors.newSingleThreadExecutor(), Executors.newSingleThreadExecutor());
+    stageRuntime.start();
+    stageRuntime.stop();
+
+    assertTrue(managementService.listPreparedOrders().isEmpty());
+    assertEquals(OrderStatus.OUT_FOR_DELIVERY, order.getStatus());
+  }
+
+  @Test
+  void testIdleRuntimeStopsPromptly() {
+    ExecutorService chefExecutor = Executors.newSingleThreadExecutor();
+    StageRuntime stageRuntime = new StageRuntime(managementService, chefExecutor,
+        Executors.newSingleThreadExecutor());
+    stageRuntime.start();
+    long start = System.nanoTime();
+    stageRuntime.stop();
+
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    assertTrue(chefExecutor.isTerminated());
+    assertThrows(IllegalStateException.class, stageRuntime::start);
+  }
+
+  @Test
+  void testOrdersCompletedAfterStopStayQueued() {
+    StageRuntime stageRuntime = new StageRuntime(managementService,
+        Executors.newSingleThreadExecutor(), Executors.newSingleThreadExecutor());
+    stageRuntime.start();
+    stageRuntime.stop();
+    Order order = submit();
+
+    assertEquals(Set.of(order.getId()), managementService.listCompletedOrders());
+    assertEquals(OrderStatus.COMPLETED, order.getStatus());
+  }
+}
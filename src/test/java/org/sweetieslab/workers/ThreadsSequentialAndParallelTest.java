@@ -12,7 +12,9 @@ import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
@@ -25,6 +27,7 @@ import org.sweetieslab.model.order.validator.AddressValidator;
 import org.sweetieslab.service.CollectionsOperationsService;
 import org.sweetieslab.service.ConcurrentMapDataService;
 import org.sweetieslab.service.ManagementService;
+import org.sweetieslab.service.journal.LifecycleJournal;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -32,6 +35,7 @@ public class ThreadsSequentialAndParallelTest {
 
   private static final Logger LOGGER = Logger.getLogger(
       ThreadsSequentialAndParallelTest.class.getName());
+  private static final int VIRTUAL_DISCIPLES = 10_000;
 
   private ExecutorService tripleExecutorService, singleExecutorService,
       anotherTripleExecutorService;
@@ -40,8 +44,16 @@ public class ThreadsSequentialAndParallelTest {
 
   @BeforeEach
   public void setUp() {
+    setUpValidator(10);
+    tripleExecutorService = Executors.newFixedThreadPool(3);
+    anotherTripleExecutorService = Executors.newFixedThreadPool(3);
+    singleExecutorService = Executors.newSingleThreadExecutor();
+
+  }
+
+  private static void setUpValidator(int roomsCount) {
     final Set<String> rooms = new HashSet<>();
-    for (int i = 1; i <= 10; i++) {
+    for (int i = 1; i <= roomsCount; i++) {
       rooms.add(String.valueOf(i));
     }
     Address.setValidator(new AddressValidator() {
@@ -50,10 +62,6 @@ public class ThreadsSequentialAndParallelTest {
         return Map.of("1", rooms, "2", rooms);
       }
     });
-    tripleExecutorService = Executors.newFixedThreadPool(3);
-    anotherTripleExecutorService = Executors.newFixedThreadPool(3);
-    singleExecutorService = Executors.newSingleThreadExecutor();
-
   }
 
   @AfterEach
@@ -63,6 +71,11 @@ public class ThreadsSequentialAndParallelTest {
     anotherTripleExecutorService.shutdownNow();
   }
 
+  @AfterAll
+  public void closeManagementService() {
+    managementService.close();
+  }
+
   @Test
   @org.junit.jupiter.api.Order(0)
   public void testDiscipleExecution() throws Exception {
@@ -125,6 +138,7 @@ public class ThreadsSequentialAndParallelTest {
   @Test
   @org.junit.jupiter.api.Order(3)
   public void testParallelExecution() throws Exception {
+    managementService.close();
     managementService = new ManagementService(
         new CollectionsOperationsService(), new ConcurrentMapDataService());
     List<Future<Boolean>> futures = new ArrayList<>();
@@ -165,4 +179,37 @@ public class ThreadsSequentialAndParallelTest {
     Set<UUID> preparedOrders = managementService.listPreparedOrders();
     assertEquals(0, preparedOrders.size());
   }
-}
\ No newline at end of file
+
+  @Test
+  @org.junit.jupiter.api.Order(4)
+  public void testVirtualThreadParallelExecution() throws Exception {
+    setUpValidator(VIRTUAL_DISCIPLES);
+    managementService.close();
+    managementService = new ManagementService(
+        new CollectionsOperationsService(LinkedBlockingQueue::new, 0),
+        new ConcurrentMapDataService(),
+        new LifecycleJournal(LifecycleJournal.DEFAULT_CAPACITY, entry -> {
+        }));
+    StageRuntime stageRuntime = new StageRuntime(managementService,
+        Executors.newFixedThreadPool(1, Thread.ofVirtual().factory()),
+        Executors.newFixedThreadPool(3, Thread.ofVirtual().factory()));
+    stageRuntime.start();
+    try (ExecutorService virtualExecutorService = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int counter = 1; counter <= VIRTUAL_DISCIPLES; counter++) {
+        futures.add(virtualExecutorService.submit(new Disciple(managementService, counter)));
+      }
+      for (Future<Boolean> future : futures) {
+        future.get();
+      }
+    } finally {
+      stageRuntime.stop();
+    }
+
+    Set<UUID> completedOrders = managementService.listCompletedOrders();
+    assertEquals(0, completedOrders.size());
+
+    Set<UUID> preparedOrders = managementService.listPreparedOrders();
+    assertEquals(0, preparedOrders.size());
+  }
+}